@@ -43,6 +43,7 @@ import { useNotify, useAuth } from '../hooks/index.js';
 import handleError from '../utils.js';
 
 import getLogger from '../lib/logger.js';
+import fetchAllPages from '../lib/fetchAllPages.js';
 
 const log = getLogger('App');
 log.enabled = true;
@@ -100,7 +101,7 @@ const App = () => {
       {
         name: 'tasks',
         getData: async () => {
-          const { data } = await axios.get(routes.apiTasks(), { headers: auth.getAuthHeader() });
+          const data = await fetchAllPages(routes.apiTasks(), { headers: auth.getAuthHeader() });
           if (!Array.isArray(data)) {
             notify.addError('Сервер не вернул список задач');
             dispatch(tasksActions.addTasks([]));
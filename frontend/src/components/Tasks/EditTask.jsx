@@ -72,6 +72,8 @@ const EditTask = () => {
           executorId: parseInt(currentTaskData.executor, 10),
           taskStatusId: parseInt(currentTaskData.taskStatusId, 10),
           labelIds: currentTaskData.labels.map((id) => parseInt(id, 10)),
+          // The task as loaded above, an update based on an older one is rejected with 409.
+          version: task.version,
         };
         const { data } = await axios.put(routes.apiTask(task.id),
           requestTask, { headers: auth.getAuthHeader() });
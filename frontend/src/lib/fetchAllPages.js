@@ -0,0 +1,18 @@
+import axios from 'axios';
+
+// Lists are returned a page at a time, the cursor of the next page is in the X-Next-Cursor header.
+const nextCursorHeader = 'x-next-cursor';
+
+// Requests the pages one after another, each with the cursor of the previous one.
+const fetchAllPages = async (url, { params = {}, ...config } = {}, cursor = null) => {
+  const pageParams = cursor ? { ...params, cursor } : params;
+  const { data, headers } = await axios.get(url, { ...config, params: pageParams });
+  const nextCursor = headers[nextCursorHeader];
+  if (!Array.isArray(data) || !nextCursor) {
+    return data;
+  }
+  const nextPages = await fetchAllPages(url, { ...config, params }, nextCursor);
+  return Array.isArray(nextPages) ? [...data, ...nextPages] : nextPages;
+};
+
+export default fetchAllPages;
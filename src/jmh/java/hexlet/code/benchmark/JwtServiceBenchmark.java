@@ -0,0 +1,80 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.service.JwtService;
+import hexlet.code.service.user.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of issuing a token on login and of authenticating one request with a bearer token.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+
+    // Same mock secret as in the test configuration.
+    private static final String SECRET = "904c3afdffa4742c4d948656b688d45c830ff3d089686777607e5fa4956a6994";
+
+    private JwtService jwtService;
+    private String token;
+    private UserPrincipal principal;
+    private String principalToken;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET);
+        token = jwtService.generateToken(new User("doe@test.com", "password", List.of()));
+        principal = new UserPrincipal(1L, "doe@test.com", "", List.of(new SimpleGrantedAuthority("USER")));
+        principalToken = jwtService.generateToken(principal);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(principal);
+    }
+
+    // What the stateless mode does for every authenticated request.
+    @Benchmark
+    public UserPrincipal extractPrincipal() {
+        return jwtService.getPrincipal(jwtService.parseValidClaims(principalToken));
+    }
+
+    // What the authentication filter used to do: extract the username, then validate the token,
+    // which parsed it twice more, each parse with a freshly decoded key and a new parser.
+    @Benchmark
+    public boolean validateWithParserPerCall() {
+        String username = parseWithNewParser().getSubject();
+        return username.equals(parseWithNewParser().getSubject())
+                && !parseWithNewParser().getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public Claims validateWithCachedParser() {
+        return jwtService.parseValidClaims(token);
+    }
+
+    private Claims parseWithNewParser() {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts
+                .parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
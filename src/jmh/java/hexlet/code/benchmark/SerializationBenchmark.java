@@ -0,0 +1,111 @@
+package hexlet.code.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import hexlet.code.dto.UserResponseDto;
+import hexlet.code.model.Label;
+import hexlet.code.model.Role;
+import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Writing the response bodies of the task and user lists.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectWriter taskWriter;
+    private ObjectWriter userWriter;
+    private List<Task> tasks;
+    private List<UserResponseDto> users;
+
+    @Setup
+    public void setUp() {
+        // Configured like the ObjectMapper of Spring Boot.
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        taskWriter = objectMapper.writerFor(new TypeReference<List<Task>>() { });
+        userWriter = objectMapper.writerFor(new TypeReference<List<UserResponseDto>>() { });
+
+        TaskStatus status = new TaskStatus("New");
+        status.setId(1L);
+        status.setCreatedAt(new Date());
+        Label bug = new Label("bug");
+        bug.setId(1L);
+        bug.setCreatedAt(new Date());
+        Label feature = new Label("feature");
+        feature.setId(2L);
+        feature.setCreatedAt(new Date());
+        User author = createUser(1L);
+        User executor = createUser(2L);
+
+        tasks = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> Task.builder()
+                        .id(id)
+                        .name("Task " + id)
+                        .description("Description of task " + id)
+                        .taskStatus(status)
+                        .author(author)
+                        .executor(executor)
+                        .labels(Set.of(bug, feature))
+                        .createdAt(new Date())
+                        .updatedAt(new Date())
+                        .version(0L)
+                        .build())
+                .toList();
+        users = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> UserResponseDto.builder()
+                        .id(id)
+                        .email("user" + id + "@test.com")
+                        .firstName("First")
+                        .lastName("Last")
+                        .createdAt(new Date())
+                        .build())
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeTasks() throws JsonProcessingException {
+        return taskWriter.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializeUsers() throws JsonProcessingException {
+        return userWriter.writeValueAsBytes(users);
+    }
+
+    private static User createUser(Long id) {
+        return User.builder()
+                .id(id)
+                .email("user" + id + "@test.com")
+                .firstName("First")
+                .lastName("Last")
+                .password("hash")
+                .role(Role.USER)
+                .createdAt(new Date())
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package hexlet.code.benchmark;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQuery;
+import hexlet.code.model.QTask;
+import hexlet.code.model.Task;
+import hexlet.code.service.task.TaskCursor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.querydsl.SimpleEntityPathResolver;
+import org.springframework.data.querydsl.binding.QuerydslBindings;
+import org.springframework.data.querydsl.binding.QuerydslPredicateBuilder;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Work done for a filtered task list before the database is queried: binding the request parameters
+// to a predicate, adding the keyset condition of the cursor and rendering the query.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskPredicateBenchmark {
+
+    private static final TypeInformation<Task> TASK_TYPE = TypeInformation.of(Task.class);
+
+    private QuerydslPredicateBuilder predicateBuilder;
+    private QuerydslBindings bindings;
+    private MultiValueMap<String, String> parameters;
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        predicateBuilder = new QuerydslPredicateBuilder(
+                DefaultConversionService.getSharedInstance(),
+                SimpleEntityPathResolver.INSTANCE
+        );
+        bindings = new QuerydslBindings();
+        parameters = new LinkedMultiValueMap<>();
+        parameters.add("taskStatusId", "1");
+        parameters.add("executorId", "2");
+        parameters.add("labelsId", "3");
+        cursor = new TaskCursor(new Date(), 100L).encode();
+    }
+
+    @Benchmark
+    public Predicate bindParameters() {
+        return predicateBuilder.getPredicate(TASK_TYPE, parameters, bindings);
+    }
+
+    @Benchmark
+    public String bindAndRenderPage() {
+        Predicate predicate = predicateBuilder.getPredicate(TASK_TYPE, parameters, bindings);
+        QTask task = QTask.task;
+        return new JPAQuery<Task>()
+                .select(task)
+                .from(task)
+                .where(TaskCursor.after(predicate, cursor))
+                .orderBy(task.createdAt.asc(), task.id.asc())
+                .toString();
+    }
+}
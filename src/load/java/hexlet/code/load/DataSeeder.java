@@ -0,0 +1,125 @@
+package hexlet.code.load;
+
+import hexlet.code.model.Label;
+import hexlet.code.model.Role;
+import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.model.User;
+import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.repository.UserRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+// Fills the database through the repositories of the application. Every batch is saved in its own
+// transaction, so the persistence context never holds more than one batch.
+public final class DataSeeder {
+
+    public static final String PASSWORD = "password";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final TaskStatusRepository taskStatusRepository;
+    private final LabelRepository labelRepository;
+    private final TaskRepository taskRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    public DataSeeder(ApplicationContext context) {
+        this.transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        this.userRepository = context.getBean(UserRepository.class);
+        this.taskStatusRepository = context.getBean(TaskStatusRepository.class);
+        this.labelRepository = context.getBean(LabelRepository.class);
+        this.taskRepository = context.getBean(TaskRepository.class);
+        this.passwordEncoder = context.getBean(PasswordEncoder.class);
+    }
+
+    public Dataset seed(LoadSettings settings) {
+        // All users share a password, hashing it once keeps the seeding fast.
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<User> users = save(settings.users(), i -> User.builder()
+                .email(getEmail(i))
+                .firstName("First" + i)
+                .lastName("Last" + i)
+                .password(passwordHash)
+                .role(Role.USER)
+                .build(), userRepository::saveAll);
+        List<TaskStatus> statuses = save(settings.statuses(), i -> new TaskStatus("Status " + i),
+                taskStatusRepository::saveAll);
+        List<Label> labels = save(settings.labels(), i -> new Label("Label " + i), labelRepository::saveAll);
+
+        Dataset dataset = new Dataset(
+                users.stream().map(User::getEmail).toList(),
+                users.stream().map(User::getId).toList(),
+                statuses.stream().map(TaskStatus::getId).toList(),
+                labels.stream().map(Label::getId).toList()
+        );
+
+        for (int offset = 0; offset < settings.tasks(); offset += BATCH_SIZE) {
+            int first = offset;
+            int count = Math.min(BATCH_SIZE, settings.tasks() - offset);
+            transactionTemplate.executeWithoutResult(status ->
+                    taskRepository.saveAll(createTasks(dataset, first, count)));
+        }
+        return dataset;
+    }
+
+    public static String getEmail(int index) {
+        return "user" + index + "@load.test";
+    }
+
+    private List<Task> createTasks(Dataset dataset, int first, int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = first; i < first + count; i++) {
+            tasks.add(Task.builder()
+                    .name("Task " + i)
+                    .description("Seeded task " + i)
+                    .taskStatus(taskStatusRepository.getReferenceById(dataset.randomStatusId(random)))
+                    .author(userRepository.getReferenceById(dataset.randomUserId(random)))
+                    .executor(userRepository.getReferenceById(dataset.randomUserId(random)))
+                    .labels(Set.of(labelRepository.getReferenceById(dataset.randomLabelId(random))))
+                    .build());
+        }
+        return tasks;
+    }
+
+    private <T> List<T> save(int total, IntFunction<T> factory, UnaryOperator<List<T>> saveAll) {
+        List<T> saved = new ArrayList<>(total);
+        for (int offset = 0; offset < total; offset += BATCH_SIZE) {
+            List<T> batch = new ArrayList<>();
+            for (int i = offset; i < Math.min(offset + BATCH_SIZE, total); i++) {
+                batch.add(factory.apply(i));
+            }
+            saved.addAll(transactionTemplate.execute(status -> saveAll.apply(batch)));
+        }
+        return saved;
+    }
+
+    // IDs of the seeded entities, which the clients pick their filters and references from.
+    public record Dataset(List<String> emails, List<Long> userIds, List<Long> statusIds, List<Long> labelIds) {
+
+        public Long randomUserId(ThreadLocalRandom random) {
+            return userIds.get(random.nextInt(userIds.size()));
+        }
+
+        public Long randomStatusId(ThreadLocalRandom random) {
+            return statusIds.get(random.nextInt(statusIds.size()));
+        }
+
+        public Long randomLabelId(ThreadLocalRandom random) {
+            return labelIds.get(random.nextInt(labelIds.size()));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package hexlet.code.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Latencies and errors of one client per endpoint. Every client has its own recorder,
+// the recorders are merged once the clients have finished.
+public final class LatencyRecorder {
+
+    private final Map<String, Samples> samplesByEndpoint = new TreeMap<>();
+
+    public void record(String endpoint, long nanos, boolean success) {
+        Samples samples = samplesByEndpoint.computeIfAbsent(endpoint, key -> new Samples());
+        if (success) {
+            samples.add(nanos);
+        } else {
+            samples.errors++;
+        }
+    }
+
+    public void merge(LatencyRecorder other) {
+        other.samplesByEndpoint.forEach((endpoint, samples) ->
+                samplesByEndpoint.computeIfAbsent(endpoint, key -> new Samples()).addAll(samples));
+    }
+
+    public Map<String, EndpointSummary> summarize(Duration duration) {
+        Map<String, EndpointSummary> summaries = new LinkedHashMap<>();
+        samplesByEndpoint.forEach((endpoint, samples) -> summaries.put(endpoint, samples.summarize(duration)));
+        return summaries;
+    }
+
+    public record EndpointSummary(
+            long requests,
+            long errors,
+            double throughputPerSecond,
+            double p50Millis,
+            double p90Millis,
+            double p99Millis,
+            double p999Millis,
+            double maxMillis
+    ) {
+    }
+
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        private void add(long nanos) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+        }
+
+        private void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.latencies[i]);
+            }
+            errors += other.errors;
+        }
+
+        private EndpointSummary summarize(Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return new EndpointSummary(
+                    size + errors,
+                    errors,
+                    (size + errors) * 1000.0 / duration.toMillis(),
+                    percentile(sorted, 0.5),
+                    percentile(sorted, 0.9),
+                    percentile(sorted, 0.99),
+                    percentile(sorted, 0.999),
+                    percentile(sorted, 1.0)
+            );
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
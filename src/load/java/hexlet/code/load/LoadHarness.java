@@ -0,0 +1,108 @@
+package hexlet.code.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import hexlet.code.TaskManager;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Boots the application on an in-memory H2 database, seeds it, drives a mixed workload from
+// in-process clients and writes the throughput and latency percentiles of every endpoint as JSON.
+public class LoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        try (ConfigurableApplicationContext context = start(settings)) {
+            long seedingStart = System.nanoTime();
+            DataSeeder.Dataset dataset = new DataSeeder(context).seed(settings);
+            Duration seeding = Duration.ofNanos(System.nanoTime() - seedingStart);
+
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            LatencyRecorder recorder = drive(settings, dataset, URI.create("http://localhost:" + port));
+
+            Summary summary = new Summary(settings, seeding.toMillis(), recorder.summarize(settings.duration()));
+            writeReport(settings, summary);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LoadSettings settings) {
+        return new SpringApplicationBuilder(TaskManager.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.database=h2",
+                        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        // The schema comes from the Liquibase changelog, as in production.
+                        "spring.jpa.hibernate.ddl-auto=none",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "outbox.sink=file",
+                        "outbox.file=" + Path.of("build/load/task-events.ndjson").toAbsolutePath(),
+                        "threads.virtual.enabled=" + settings.virtualThreads()
+                )
+                .run();
+    }
+
+    private static LatencyRecorder drive(LoadSettings settings, DataSeeder.Dataset dataset, URI baseUri)
+            throws Exception {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        ObjectMapper objectMapper = new ObjectMapper();
+        long measurementStart = System.nanoTime() + settings.warmUp().toNanos();
+        long deadline = measurementStart + settings.duration().toNanos();
+
+        List<WorkloadClient> clients = new ArrayList<>();
+        for (int i = 0; i < settings.clients(); i++) {
+            String email = dataset.emails().get(i % dataset.emails().size());
+            clients.add(new WorkloadClient(
+                    httpClient, objectMapper, baseUri, dataset, email, measurementStart, deadline));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(settings.clients());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            clients.forEach(client -> futures.add(executor.submit(client)));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        clients.forEach(client -> recorder.merge(client.getRecorder()));
+        return recorder;
+    }
+
+    private static void writeReport(LoadSettings settings, Summary summary) throws IOException {
+        String json = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter()
+                .writeValueAsString(summary);
+        if (settings.report().getParent() != null) {
+            Files.createDirectories(settings.report().getParent());
+        }
+        Files.writeString(settings.report(), json);
+        System.out.println(json);
+    }
+
+    private record Summary(
+            LoadSettings settings,
+            long seedingMillis,
+            Map<String, LatencyRecorder.EndpointSummary> endpoints
+    ) {
+    }
+}
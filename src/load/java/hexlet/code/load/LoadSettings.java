@@ -0,0 +1,35 @@
+package hexlet.code.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Size of the seeded dataset and shape of the workload, read from the load.* system properties
+// (./gradlew loadHarness -Pload.tasks=500000 -Pload.clients=64).
+public record LoadSettings(
+        int users,
+        int statuses,
+        int labels,
+        int tasks,
+        int clients,
+        Duration warmUp,
+        Duration duration,
+        boolean virtualThreads,
+        Path report
+) {
+
+    public static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                Integer.getInteger("load.users", 200),
+                Integer.getInteger("load.statuses", 10),
+                Integer.getInteger("load.labels", 50),
+                Integer.getInteger("load.tasks", 200_000),
+                Integer.getInteger("load.clients", 32),
+                DurationStyle.detectAndParse(System.getProperty("load.warm-up", "15s")),
+                DurationStyle.detectAndParse(System.getProperty("load.duration", "60s")),
+                Boolean.getBoolean("load.virtual-threads"),
+                Path.of(System.getProperty("load.report", "build/reports/load/summary.json"))
+        );
+    }
+}
@@ -0,0 +1,179 @@
+package hexlet.code.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.dto.LoginDto;
+import hexlet.code.dto.TaskDto;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+// One simulated user: logs in, then sends a random mix of requests until the deadline.
+// Requests sent before the start of the measurement warm the application up and aren't recorded.
+public final class WorkloadClient implements Runnable {
+
+    private static final String LOGIN = "POST /api/login";
+    private static final String LIST_TASKS = "GET /api/tasks?taskStatus&labelsId&limit";
+    private static final String CREATE_TASK = "POST /api/tasks";
+    private static final String UPDATE_TASK = "PUT /api/tasks/{id}";
+    private static final String DELETE_TASK = "DELETE /api/tasks/{id}";
+
+    private static final int PAGE_SIZE = 50;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI baseUri;
+    private final DataSeeder.Dataset dataset;
+    private final String email;
+    private final long measurementStart;
+    private final long deadline;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    // Tasks created by this client, the only ones it may delete.
+    private final List<Long> ownTaskIds = new ArrayList<>();
+    // Last known version of each of them, which an update has to be based on.
+    private final Map<Long, Long> ownTaskVersions = new HashMap<>();
+    private String token;
+
+    public WorkloadClient(
+            HttpClient httpClient,
+            ObjectMapper objectMapper,
+            URI baseUri,
+            DataSeeder.Dataset dataset,
+            String email,
+            long measurementStart,
+            long deadline
+    ) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUri = baseUri;
+        this.dataset = dataset;
+        this.email = email;
+        this.measurementStart = measurementStart;
+        this.deadline = deadline;
+    }
+
+    public LatencyRecorder getRecorder() {
+        return recorder;
+    }
+
+    @Override
+    public void run() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        login();
+        while (System.nanoTime() < deadline) {
+            int dice = random.nextInt(100);
+            if (dice < 2) {
+                login();
+            } else if (dice < 62) {
+                listTasks(random);
+            } else if (dice < 80 || ownTaskIds.isEmpty()) {
+                createTask(random);
+            } else if (dice < 92) {
+                updateTask(random);
+            } else {
+                deleteTask(random);
+            }
+        }
+    }
+
+    private void login() {
+        LoginDto loginDto = new LoginDto(email, DataSeeder.PASSWORD);
+        HttpResponse<String> response = send(LOGIN, request("/api/login").POST(body(loginDto)).build());
+        if (response != null && response.statusCode() == 200) {
+            token = response.body();
+        }
+    }
+
+    private void listTasks(ThreadLocalRandom random) {
+        String query = String.format("/api/tasks?taskStatus=%d&labelsId=%d&limit=%d",
+                dataset.randomStatusId(random), dataset.randomLabelId(random), PAGE_SIZE);
+        send(LIST_TASKS, request(query).GET().build());
+    }
+
+    private void createTask(ThreadLocalRandom random) {
+        TaskDto taskDto = randomTask(random);
+        HttpResponse<String> response = send(CREATE_TASK, request("/api/tasks").POST(body(taskDto)).build());
+        if (response != null && response.statusCode() == 201) {
+            JsonNode task = readTask(response);
+            ownTaskIds.add(task.get("id").asLong());
+            ownTaskVersions.put(task.get("id").asLong(), task.get("version").asLong());
+        }
+    }
+
+    private void updateTask(ThreadLocalRandom random) {
+        Long id = ownTaskIds.get(random.nextInt(ownTaskIds.size()));
+        TaskDto taskDto = randomTask(random);
+        taskDto.setVersion(ownTaskVersions.get(id));
+        HttpResponse<String> response = send(UPDATE_TASK, request("/api/tasks/" + id).PUT(body(taskDto)).build());
+        if (response != null && response.statusCode() == 200) {
+            ownTaskVersions.put(id, readTask(response).get("version").asLong());
+        }
+    }
+
+    private void deleteTask(ThreadLocalRandom random) {
+        Long id = ownTaskIds.remove(random.nextInt(ownTaskIds.size()));
+        ownTaskVersions.remove(id);
+        send(DELETE_TASK, request("/api/tasks/" + id).DELETE().build());
+    }
+
+    private TaskDto randomTask(ThreadLocalRandom random) {
+        return new TaskDto(
+                "Load task " + random.nextInt(),
+                "Created by the load harness",
+                dataset.randomStatusId(random),
+                dataset.randomUserId(random),
+                Set.of(dataset.randomLabelId(random)),
+                null
+        );
+    }
+
+    // Returns null when the request has failed without a response.
+    private HttpResponse<String> send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            response = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response = null;
+        }
+        if (start >= measurementStart) {
+            boolean success = response != null && response.statusCode() < 400;
+            recorder.record(endpoint, System.nanoTime() - start, success);
+        }
+        return response;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json");
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest.BodyPublisher body(Object value) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(value));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode readTask(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package hexlet.code;
 
 import hexlet.code.exception.InvalidDataException;
+import hexlet.code.exception.LabelNotFoundException;
+import hexlet.code.exception.TaskNotFoundException;
+import hexlet.code.exception.TaskStatusNotFoundException;
+import hexlet.code.exception.TaskVersionConflictException;
+import hexlet.code.exception.TaskVersionRequiredException;
 import hexlet.code.exception.UserNotFoundException;
 import hexlet.code.dto.ErrorResponseDto;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -24,6 +30,68 @@ public class AppExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    @ExceptionHandler(LabelNotFoundException.class)
+    public ResponseEntity<Object> handleLabelNotFoundException(LabelNotFoundException exception) {
+        ErrorResponseDto response = new ErrorResponseDto(
+                LocalDateTime.now(),
+                HttpStatus.NOT_FOUND,
+                exception.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
+    @ExceptionHandler(TaskStatusNotFoundException.class)
+    public ResponseEntity<Object> handleTaskStatusNotFoundException(TaskStatusNotFoundException exception) {
+        ErrorResponseDto response = new ErrorResponseDto(
+                LocalDateTime.now(),
+                HttpStatus.NOT_FOUND,
+                exception.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
+    @ExceptionHandler(TaskNotFoundException.class)
+    public ResponseEntity<Object> handleTaskNotFoundException(TaskNotFoundException exception) {
+        ErrorResponseDto response = new ErrorResponseDto(
+                LocalDateTime.now(),
+                HttpStatus.NOT_FOUND,
+                exception.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
+    @ExceptionHandler(TaskVersionConflictException.class)
+    public ResponseEntity<Object> handleTaskVersionConflictException(TaskVersionConflictException exception) {
+        ErrorResponseDto response = new ErrorResponseDto(
+                LocalDateTime.now(),
+                HttpStatus.CONFLICT,
+                exception.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    // Without the version an update could silently overwrite a concurrent change.
+    @ExceptionHandler(TaskVersionRequiredException.class)
+    public ResponseEntity<Object> handleTaskVersionRequiredException(TaskVersionRequiredException exception) {
+        ErrorResponseDto response = new ErrorResponseDto(
+                LocalDateTime.now(),
+                HttpStatus.PRECONDITION_REQUIRED,
+                exception.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).body(response);
+    }
+
+    // Two requests changed the same row at the same time, the one committing last has failed.
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailureException() {
+        ErrorResponseDto response = new ErrorResponseDto(
+                LocalDateTime.now(),
+                HttpStatus.CONFLICT,
+                "The data has been changed by another request. Reload it and try again."
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     @ExceptionHandler(InvalidDataException.class)
     public ResponseEntity<Object> handleInvalidDataException(InvalidDataException exception) {
         List<ErrorResponseDto> response = exception.getMessages().stream()
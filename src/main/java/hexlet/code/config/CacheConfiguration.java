@@ -0,0 +1,56 @@
+package hexlet.code.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfiguration {
+
+    public static final String USER_DETAILS_CACHE = "userDetails";
+
+    // In-process caches. Statistics are recorded, and Boot binds them to the meter registry for every cache
+    // of this manager: cache.gets (hit/miss), cache.puts and cache.evictions, tagged with the cache name.
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${auth.user-cache.ttl}") Duration userCacheTtl,
+            @Value("${auth.user-cache.max-size}") long userCacheMaxSize
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(USER_DETAILS_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(userCacheTtl)
+                .maximumSize(userCacheMaxSize)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    // The second-level and query cache regions live in Hibernate's own JCache manager, out of Boot's sight.
+    // Their hit, miss and put counts come from the JCache statistics Caffeine keeps (see application.conf),
+    // so they reach the registry as cache.gets and cache.puts even with Hibernate statistics switched off.
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getCache()
+                    .getRegionFactory();
+            if (regionFactory instanceof JCacheRegionFactory jCacheRegionFactory) {
+                javax.cache.CacheManager cacheManager = jCacheRegionFactory.getCacheManager();
+                for (String cacheName : cacheManager.getCacheNames()) {
+                    JCacheMetrics.monitor(registry, cacheManager.getCache(cacheName));
+                }
+            }
+        };
+    }
+}
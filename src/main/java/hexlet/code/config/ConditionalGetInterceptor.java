@@ -0,0 +1,39 @@
+package hexlet.code.config;
+
+import hexlet.code.controller.utils.VersionedBy;
+import hexlet.code.service.version.EntityVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Answers If-None-Match / If-Modified-Since of endpoints marked with @VersionedBy from the entity versions,
+// so an unchanged poll costs a single lookup of the version rows instead of loading and serializing the data.
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final EntityVersions entityVersions;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        VersionedBy versionedBy = handlerMethod.getMethodAnnotation(VersionedBy.class);
+        if (versionedBy == null) {
+            return true;
+        }
+
+        // Allow clients to keep the response, but make them revalidate it on every use.
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        EntityVersions.Snapshot version = entityVersions.of(versionedBy.value());
+        // Sets the ETag and Last-Modified headers, and the 304 status when the client's copy is current.
+        return !new ServletWebRequest(request, response).checkNotModified(version.eTag(), version.lastModified());
+    }
+}
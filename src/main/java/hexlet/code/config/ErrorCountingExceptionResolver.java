@@ -0,0 +1,49 @@
+package hexlet.code.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+// Counts the exceptions thrown by the controllers per exception type and handler method. Runs before
+// the other resolvers and resolves nothing, so the exceptions are handled as before.
+@Component
+@RequiredArgsConstructor
+public class ErrorCountingExceptionResolver implements HandlerExceptionResolver, Ordered {
+
+    public static final String ERROR_COUNTER = "api.errors";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public ModelAndView resolveException(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler,
+            Exception exception
+    ) {
+        meterRegistry.counter(
+                ERROR_COUNTER,
+                "exception", exception.getClass().getSimpleName(),
+                "handler", getHandlerName(handler)
+        ).increment();
+        return null;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private String getHandlerName(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return "none";
+    }
+}
@@ -0,0 +1,24 @@
+package hexlet.code.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfiguration {
+
+    // Names of the timers of the @Timed classes and methods. Their histograms and percentiles
+    // are configured with the management.metrics.distribution properties.
+    public static final String SERVICE_TIMER = "service.calls";
+    public static final String LOGIN_TIMER = "auth.login";
+    public static final String JWT_VERIFY_TIMER = "auth.jwt.verify";
+    public static final String JWT_GENERATE_TIMER = "auth.jwt.generate";
+
+    // Times the methods of beans annotated with @Timed and tags the timings with the class, the method
+    // and the exception thrown, if any.
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,45 @@
+package hexlet.code.config;
+
+import hexlet.code.model.OutboxEvent;
+import hexlet.code.service.outbox.OutboxRelay;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.dsl.IntegrationFlow;
+import org.springframework.integration.dsl.Pollers;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true")
+public class OutboxConfiguration {
+
+    // Polls the outbox and hands every non-empty batch to the relay. Each batch is read, delivered
+    // and deleted in its own transaction, and a poll takes several batches when the outbox is behind.
+    @Bean
+    public IntegrationFlow outboxRelayFlow(
+            OutboxRelay outboxRelay,
+            PlatformTransactionManager transactionManager,
+            @Value("${outbox.relay.poll-interval}") Duration pollInterval,
+            @Value("${outbox.relay.batches-per-poll}") long batchesPerPoll
+    ) {
+        return IntegrationFlow
+                .fromSupplier(outboxRelay::nextBatch, adapter -> adapter
+                        .poller(Pollers.fixedDelay(pollInterval)
+                                .maxMessagesPerPoll(batchesPerPoll)
+                                .transactional(transactionManager)))
+                .<List<OutboxEvent>>handle((batch, headers) -> {
+                    try {
+                        outboxRelay.deliver(batch);
+                    } catch (Exception e) {
+                        // Rolls the transaction back, the batch stays in the outbox for the next poll.
+                        throw new IllegalStateException("Failed to relay outbox events", e);
+                    }
+                    return null;
+                })
+                .get();
+    }
+}
@@ -0,0 +1,55 @@
+package hexlet.code.config;
+
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.service.user.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Access rules for the resources that only their owner may change. The current user's ID is taken
+// from the principal, so a decision costs at most one indexed query and never loads an entity.
+@Component
+@RequiredArgsConstructor
+public class OwnershipAuthorizer {
+
+    public static final String ID_VARIABLE = "id";
+
+    private final CurrentUser currentUser;
+    private final TaskRepository taskRepository;
+
+    // Checks whether the authenticated user has the same ID as they are claiming to operate on.
+    public AuthorizationDecision hasSelfId(
+            Supplier<Authentication> authentication,
+            RequestAuthorizationContext context
+    ) {
+        Optional<Long> userId = currentUser.getId(authentication.get());
+        Optional<Long> idClaim = getIdVariable(context);
+        return new AuthorizationDecision(userId.isPresent() && userId.equals(idClaim));
+    }
+
+    // Checks whether the currently authenticated user is the author of the task.
+    public AuthorizationDecision isAuthor(
+            Supplier<Authentication> authentication,
+            RequestAuthorizationContext context
+    ) {
+        Optional<Long> userId = currentUser.getId(authentication.get());
+        Optional<Long> taskId = getIdVariable(context);
+        boolean isAuthor = userId.isPresent()
+                && taskId.isPresent()
+                && taskRepository.existsByIdAndAuthorId(taskId.get(), userId.get());
+        return new AuthorizationDecision(isAuthor);
+    }
+
+    private static Optional<Long> getIdVariable(RequestAuthorizationContext context) {
+        try {
+            return Optional.ofNullable(context.getVariables().get(ID_VARIABLE)).map(Long::valueOf);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
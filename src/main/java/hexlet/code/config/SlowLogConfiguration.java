@@ -0,0 +1,72 @@
+package hexlet.code.config;
+
+import hexlet.code.service.slowlog.SlowLog;
+import hexlet.code.service.slowlog.SlowLogWriter;
+import hexlet.code.service.slowlog.SlowQueryListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class SlowLogConfiguration {
+
+    public static final String SLOW_QUERY_LOG = "slowQueryLog";
+    public static final String SLOW_REQUEST_LOG = "slowRequestLog";
+
+    @Bean(SLOW_QUERY_LOG)
+    public SlowLog slowQueryLog(
+            SlowLogWriter slowLogWriter,
+            @Value("${slow-log.query.enabled}") boolean enabled,
+            @Value("${slow-log.query.threshold}") Duration threshold,
+            @Value("${slow-log.query.sample-rate}") double sampleRate
+    ) {
+        return new SlowLog("query", slowLogWriter, new SlowLog.Settings(enabled, threshold.toMillis(), sampleRate));
+    }
+
+    @Bean(SLOW_REQUEST_LOG)
+    public SlowLog slowRequestLog(
+            SlowLogWriter slowLogWriter,
+            @Value("${slow-log.request.enabled}") boolean enabled,
+            @Value("${slow-log.request.threshold}") Duration threshold,
+            @Value("${slow-log.request.sample-rate}") double sampleRate
+    ) {
+        return new SlowLog("request", slowLogWriter, new SlowLog.Settings(enabled, threshold.toMillis(), sampleRate));
+    }
+
+    @Bean
+    public SlowQueryListener slowQueryListener(
+            @Qualifier(SLOW_QUERY_LOG) SlowLog slowQueryLog,
+            @Value("${slow-log.query.capture-parameters}") boolean captureParameters,
+            @Value("${slow-log.query.max-parameter-length}") int maxParameterLength
+    ) {
+        return new SlowQueryListener(slowQueryLog, captureParameters, maxParameterLength);
+    }
+
+    // Times every statement executed through the data source, including Hibernate's and Liquibase's.
+    // The listener is looked up once the data source is created, post processors have to be created first.
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(
+            ObjectProvider<SlowQueryListener> slowQueryListener
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(slowQueryListener.getObject())
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package hexlet.code.config;
+
+import hexlet.code.service.slowlog.SlowLog;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+// Writes the requests whose handling took at least the threshold of the request log, keyed by
+// the controller method, e.g. "TaskController.getTasks". Query strings are left out, they may hold personal data.
+@Component
+public class SlowRequestInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = SlowRequestInterceptor.class.getName() + ".start";
+
+    private final SlowLog slowRequestLog;
+
+    public SlowRequestInterceptor(@Qualifier(SlowLogConfiguration.SLOW_REQUEST_LOG) SlowLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler,
+            Exception ex
+    ) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long start)
+                || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (!slowRequestLog.isLogged(elapsedMillis)) {
+            return;
+        }
+        String key = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        int status = response.getStatus();
+        String error = ex != null ? ", " + ex.getClass().getSimpleName() : "";
+        slowRequestLog.write(() -> "Slow request (" + elapsedMillis + " ms" + error + "): "
+                + key + " " + method + " " + uri + " -> " + status);
+    }
+}
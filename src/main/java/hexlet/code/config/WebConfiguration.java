@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.resource.PathResourceResolver;
@@ -16,8 +17,25 @@ public class WebConfiguration implements WebMvcConfigurer {
 
     private final String baseApiPath;
 
-    public WebConfiguration(@Value("${base-url}") String baseApiPath) {
+    private final SlowRequestInterceptor slowRequestInterceptor;
+
+    private final ConditionalGetInterceptor conditionalGetInterceptor;
+
+    public WebConfiguration(
+            @Value("${base-url}") String baseApiPath,
+            SlowRequestInterceptor slowRequestInterceptor,
+            ConditionalGetInterceptor conditionalGetInterceptor
+    ) {
         this.baseApiPath = baseApiPath;
+        this.slowRequestInterceptor = slowRequestInterceptor;
+        this.conditionalGetInterceptor = conditionalGetInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // First, so that the time of the other interceptors counts as well.
+        registry.addInterceptor(slowRequestInterceptor);
+        registry.addInterceptor(conditionalGetInterceptor);
     }
 
     @Override
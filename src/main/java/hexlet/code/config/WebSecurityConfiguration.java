@@ -1,14 +1,14 @@
 package hexlet.code.config;
 
 import hexlet.code.config.filter.JwtAuthenticationFilter;
-import hexlet.code.model.Task;
-import hexlet.code.model.User;
-import hexlet.code.repository.TaskRepository;
-import hexlet.code.repository.UserRepository;
+import hexlet.code.model.Role;
 import hexlet.code.service.task.TaskServiceImpl;
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,7 +16,6 @@ import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -29,19 +28,20 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
-
-import java.util.Optional;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
 public class WebSecurityConfiguration {
 
+    // Cost factor of the password hashes, each increment doubles the time of a login.
+    public static final int PASSWORD_STRENGTH = 10;
+
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
     private final TaskServiceImpl taskService;
-    private final UserRepository userRepository;
-    private final TaskRepository taskRepository;
+    private final OwnershipAuthorizer ownershipAuthorizer;
     private final ApplicationContext applicationContext;
 
     @Value("${base-url}")
@@ -63,18 +63,17 @@ public class WebSecurityConfiguration {
                                 .requestMatchers(HttpMethod.GET, baseUrl + "/statuses").permitAll()
                                 .requestMatchers(HttpMethod.GET, baseUrl + "/tasks/*").permitAll()
                                 .requestMatchers(HttpMethod.GET, baseUrl + "/tasks").permitAll()
+                                .requestMatchers(getPublicEndpoints()).permitAll()
+                                .requestMatchers(EndpointRequest.toAnyEndpoint()).hasAuthority(Role.ADMIN.name())
                                 .requestMatchers(
                                         new NegatedRequestMatcher(
                                                 new AntPathRequestMatcher(baseUrl + "/**"))).permitAll()
-                                .requestMatchers(HttpMethod.DELETE, baseUrl + "/users/*")
-                                .access((authentication, context) ->
-                                        new AuthorizationDecision(hasSelfId(context.getRequest())))
-                                .requestMatchers(HttpMethod.PUT, baseUrl + "/users/*")
-                                .access((authentication, context) ->
-                                        new AuthorizationDecision(hasSelfId(context.getRequest())))
-                                .requestMatchers(HttpMethod.DELETE, baseUrl + "/tasks/*")
-                                .access((authentication, context) ->
-                                        new AuthorizationDecision(isAuthor(context.getRequest())))
+                                .requestMatchers(HttpMethod.DELETE, baseUrl + "/users/{id}")
+                                .access(ownershipAuthorizer::hasSelfId)
+                                .requestMatchers(HttpMethod.PUT, baseUrl + "/users/{id}")
+                                .access(ownershipAuthorizer::hasSelfId)
+                                .requestMatchers(HttpMethod.DELETE, baseUrl + "/tasks/{id}")
+                                .access(ownershipAuthorizer::isAuthor)
                                 .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
@@ -84,6 +83,16 @@ public class WebSecurityConfiguration {
         return http.build();
     }
 
+    // Prometheus scrapes without a token only when the actuator endpoints have a port of their own
+    // (management.server.port), which is to be reachable from the monitoring network alone.
+    // On the application port, every endpoint but health is restricted to admins.
+    private RequestMatcher getPublicEndpoints() {
+        if (ManagementPortType.get(applicationContext.getEnvironment()) == ManagementPortType.DIFFERENT) {
+            return EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class);
+        }
+        return EndpointRequest.to(HealthEndpoint.class);
+    }
+
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
@@ -100,41 +109,6 @@ public class WebSecurityConfiguration {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
-    // Checks whether the authenticated user has the same ID as they are claiming to operate on.
-    private boolean hasSelfId(HttpServletRequest request) {
-        String[] uriItems = request.getRequestURI().split("/");
-        Long idClaim = Long.parseLong(uriItems[uriItems.length - 1]);
-
-        if (request.getUserPrincipal() != null) {
-            Optional<User> user = userRepository.findUserByEmail(request.getUserPrincipal().getName());
-            return user.isPresent() && user.get().getId().equals(idClaim);
-        } else {
-            return false;
-        }
-    }
-
-    // Checks whether the currently authenticated user is the author of the task.
-    private boolean isAuthor(HttpServletRequest request) {
-        String[] uriItems = request.getRequestURI().split("/");
-        Long taskId = Long.parseLong(uriItems[uriItems.length - 1]);
-
-        Optional<Task> task = taskRepository.findTaskById(taskId);
-        if (task.isEmpty()) {
-            return false;
-        }
-
-        Long taskAuthorId = task.get().getAuthor().getId();
-
-        if (request.getUserPrincipal() != null) {
-            String username = request.getUserPrincipal().getName();
-            Optional<User> currentUser = userRepository.findUserByEmail(username);
-            return currentUser.isPresent()
-                    && currentUser.get().getId().equals(taskAuthorId);
-        } else {
-            return false;
-        }
+        return new BCryptPasswordEncoder(PASSWORD_STRENGTH);
     }
 }
@@ -1,13 +1,22 @@
 package hexlet.code.config.filter;
 
+import hexlet.code.model.Role;
 import hexlet.code.service.JwtService;
+import hexlet.code.service.user.ActiveUsersCache;
+import hexlet.code.service.user.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -17,15 +26,29 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String INVALID_TOKEN_CHALLENGE = "Bearer error=\"invalid_token\"";
+
     private final JwtService jwtService;
 
     private final UserDetailsService userDetailsService;
 
+    private final ActiveUsersCache activeUsersCache;
+
+    // When enabled, the user is restored from the token claims and the users table is not queried.
+    @Value("${auth.stateless}")
+    private boolean stateless;
+
+    // Whether tokens of deleted users are rejected in the stateless mode, and the current role is used
+    // instead of the one in the token. Deletions and role changes are noticed within the cache TTL.
+    @Value("${auth.revocation-check.enabled}")
+    private boolean revocationCheck;
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -35,7 +58,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             // Pass the request to the next filter:
             filterChain.doFilter(request, response);
@@ -43,31 +65,55 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    // Object needed by Spring to update SecurityContext,
-                    // so that it knows that the user is now authenticated.
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    // Set the details for the Security Context so that it
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                } else {
-                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                }
-            } catch (UsernameNotFoundException e) {
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                // The signature and the expiration date are verified by this single parse.
+                Claims claims = jwtService.parseValidClaims(jwt);
+                UserDetails userDetails = loadUserDetails(claims);
+                // Object needed by Spring to update SecurityContext,
+                // so that it knows that the user is now authenticated.
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+                // Set the details for the Security Context so that it
+                authToken.setDetails(
+                        new WebAuthenticationDetailsSource().buildDetails(request)
+                );
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            } catch (JwtException | IllegalArgumentException | AuthenticationException e) {
+                // The request isn't passed on: an invalid token is rejected even on public routes,
+                // instead of being handled as an anonymous request. An empty token fails with
+                // an IllegalArgumentException before it is parsed.
+                SecurityContextHolder.clearContext();
+                response.setHeader(HttpHeaders.WWW_AUTHENTICATE, INVALID_TOKEN_CHALLENGE);
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+                return;
             }
         }
         // Pass the request to the next filter:
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails loadUserDetails(Claims claims) {
+        // Tokens issued before the ID and roles claims were introduced still need a lookup.
+        if (!stateless || !jwtService.hasPrincipalClaims(claims)) {
+            return this.userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+
+        UserPrincipal principal = jwtService.getPrincipal(claims);
+        if (!revocationCheck) {
+            return principal;
+        }
+        Role role = activeUsersCache.getRole(principal.getId()).orElseThrow(
+                () -> new UsernameNotFoundException("No user found with ID " + principal.getId() + ".")
+        );
+        return new UserPrincipal(
+                principal.getId(),
+                principal.getUsername(),
+                "",
+                List.of(new SimpleGrantedAuthority(role.name()))
+        );
+    }
 }
@@ -1,6 +1,7 @@
 package hexlet.code.controller;
 
 import hexlet.code.controller.utils.ControllerUtils;
+import hexlet.code.controller.utils.VersionedBy;
 import hexlet.code.dto.LabelDto;
 import hexlet.code.exception.DeletionException;
 import hexlet.code.exception.LabelNotFoundException;
@@ -48,6 +49,7 @@ public class LabelController {
                         schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
+    @VersionedBy(Label.class)
     @GetMapping(path = "/{id}")
     public ResponseEntity<Object> getLabelById(
             @Parameter(description = "ID of a label to be searched")
@@ -69,6 +71,7 @@ public class LabelController {
         @ApiResponse(responseCode = "403", description = "Access forbidden", content = @Content),
         @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
+    @VersionedBy(Label.class)
     @GetMapping(path = "")
     public List<Label> getAllLabels() {
         return labelService.getAllLabeles();
@@ -2,10 +2,21 @@ package hexlet.code.controller;
 
 import com.querydsl.core.types.Predicate;
 import hexlet.code.controller.utils.ControllerUtils;
+import hexlet.code.controller.utils.VersionedBy;
+import hexlet.code.dto.ErrorResponseDto;
+import hexlet.code.dto.TaskBatchDto;
+import hexlet.code.dto.TaskBatchResultDto;
 import hexlet.code.dto.TaskDto;
-import hexlet.code.exception.TaskNotFoundException;
+import hexlet.code.dto.TaskPageDto;
+import hexlet.code.dto.TaskSummaryDto;
+import hexlet.code.model.Label;
 import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.model.TaskTombstone;
+import hexlet.code.model.User;
 import hexlet.code.service.task.TaskServiceImpl;
+import hexlet.code.service.task.event.TaskChangedEvent;
+import hexlet.code.service.task.event.TaskEventBroadcaster;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -13,9 +24,12 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.querydsl.binding.QuerydslPredicate;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
@@ -26,17 +40,32 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
 @RequestMapping("${base-url}/tasks")
 public class TaskController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    public static final String CHANGED_SINCE_HEADER = "X-Changed-Since";
+
     @Autowired
     private TaskServiceImpl taskService;
 
+    @Autowired
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    @Value("${tasks.sync.overlap}")
+    private Duration syncOverlap;
+
     @Operation(summary = "Get a task by ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Task successfully found",
@@ -46,34 +75,123 @@ public class TaskController {
         @ApiResponse(responseCode = "403", description = "Access forbidden", content = @Content),
         @ApiResponse(responseCode = "404", description = "Task not found",
                 content = { @Content(mediaType = "application/json",
-                        schema = @Schema(implementation = String.class)) }),
+                        schema = @Schema(implementation = ErrorResponseDto.class)) }),
         @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content) })
+    @VersionedBy({Task.class, TaskStatus.class, User.class, Label.class})
     @GetMapping(path = "/{id}")
     public ResponseEntity<Object> getTaskById(
             @Parameter(description = "ID of a task to be searched")
             @PathVariable Long id
     ) {
-        try {
-            return ResponseEntity.ok().body(taskService.getTaskById(id));
-        } catch (TaskNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
-        }
+        return ResponseEntity.ok().body(taskService.getTaskById(id));
     }
 
-    @Operation(summary = "Get all tasks")
+    @Operation(summary = "Get a page of tasks, at most 'limit' and never more than the configured maximum page size. "
+            + "The cursor of the next page is returned in the " + NEXT_CURSOR_HEADER + " header. "
+            + "Only the tasks changed after 'changedSince' when it is given, in the order of the changes. "
+            + "The 'changedSince' value of the next sync is returned in the " + CHANGED_SINCE_HEADER + " header "
+            + "of the first page, it is to be used once all pages and the deletions have been read")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Tasks found",
                 content = { @Content(mediaType = "application/json",
                         array = @ArraySchema(schema = @Schema(implementation = Task.class))) }),
         @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
         @ApiResponse(responseCode = "403", description = "Access forbidden", content = @Content),
+        @ApiResponse(responseCode = "422", description = "Invalid cursor provided", content = @Content),
         @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content) })
+    @VersionedBy({Task.class, TaskStatus.class, User.class, Label.class})
     @GetMapping(path = "")
-    public List<Task> getTasks(
+    public ResponseEntity<List<Task>> getTasks(
             @Parameter(hidden = true)
-            @QuerydslPredicate(root = Task.class) Predicate predicate
+            @QuerydslPredicate(root = Task.class) Predicate predicate,
+            @Parameter(description = "Cursor returned with the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of tasks in a page")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "ISO-8601 time, only the tasks created or changed after it are returned")
+            @RequestParam(required = false) Instant changedSince
     ) {
-        return taskService.getTasks(predicate);
+        if (changedSince != null) {
+            // Taken before the first page is read and moved back by the overlap, so that the next sync also
+            // gets the tasks whose transactions were still running while the pages were read. The times
+            // of changes are taken at the flush, so the overlap has to exceed the longest write transaction
+            // and the clock skew between instances.
+            Instant nextChangedSince = cursor == null ? Instant.now().minus(syncOverlap) : null;
+            return toResponse(taskService.getTasksChangedSince(predicate, changedSince, cursor, limit),
+                    nextChangedSince);
+        }
+        return toResponse(taskService.getTasks(predicate, cursor, limit));
+    }
+
+    @Operation(summary = "Get a page of the tasks deleted after 'changedSince', in the order of the deletions. "
+            + "Used with the same 'changedSince' value as the changed tasks. "
+            + "The cursor of the next page is returned in the " + NEXT_CURSOR_HEADER + " header")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Deleted tasks found",
+                content = { @Content(mediaType = "application/json",
+                        array = @ArraySchema(schema = @Schema(implementation = TaskTombstone.class))) }),
+        @ApiResponse(responseCode = "422", description = "Invalid cursor provided", content = @Content),
+        @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content) })
+    @VersionedBy(Task.class)
+    @GetMapping(path = "/deletions")
+    public ResponseEntity<List<TaskTombstone>> getTaskDeletions(
+            @Parameter(description = "ISO-8601 time, only the tasks deleted after it are returned")
+            @RequestParam Instant changedSince,
+            @Parameter(description = "Cursor returned with the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of deleted tasks in a page")
+            @RequestParam(required = false) Integer limit
+    ) {
+        return toResponse(taskService.getTasksDeletedSince(changedSince, cursor, limit));
+    }
+
+    @Operation(summary = "Get a page of task summaries: ids and names of the associated entities only. "
+            + "The cursor of the next page is returned in the " + NEXT_CURSOR_HEADER + " header")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Task summaries found",
+                content = { @Content(mediaType = "application/json",
+                        array = @ArraySchema(schema = @Schema(implementation = TaskSummaryDto.class))) }),
+        @ApiResponse(responseCode = "422", description = "Invalid cursor provided", content = @Content),
+        @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content) })
+    @VersionedBy({Task.class, TaskStatus.class, User.class, Label.class})
+    @GetMapping(path = "/summaries")
+    public ResponseEntity<List<TaskSummaryDto>> getTaskSummaries(
+            @Parameter(hidden = true)
+            @QuerydslPredicate(root = Task.class) Predicate predicate,
+            @Parameter(description = "Cursor returned with the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of task summaries in a page")
+            @RequestParam(required = false) Integer limit
+    ) {
+        return toResponse(taskService.getTaskSummaries(predicate, cursor, limit));
+    }
+
+    @Operation(summary = "Export all tasks as newline-delimited JSON, streamed as they are read")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tasks exported",
+                content = { @Content(mediaType = NDJSON_MEDIA_TYPE,
+                        schema = @Schema(implementation = Task.class)) }),
+        @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content) })
+    @GetMapping(path = "/export", produces = NDJSON_MEDIA_TYPE)
+    public void exportTasks(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON_MEDIA_TYPE);
+        taskService.exportTasks(response.getOutputStream());
+    }
+
+    @Operation(summary = "Subscribe to the changes of tasks. Every committed change is sent as a '"
+            + TaskEventBroadcaster.TASK_EVENT + "' event with the type of the change and the task ID. "
+            + "A '" + TaskEventBroadcaster.RESYNC_EVENT + "' event means that events were dropped because "
+            + "the client fell behind, and all tasks have to be reloaded. Idle connections get a '"
+            + TaskEventBroadcaster.HEARTBEAT_COMMENT + "' comment periodically. Only the changes made through "
+            + "the instance serving the subscription are sent")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Subscribed",
+                content = { @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                        schema = @Schema(implementation = TaskChangedEvent.class)) }),
+        @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content) })
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToTaskEvents() {
+        return taskEventBroadcaster.subscribe();
     }
 
     @Operation(summary = "Create a new task")
@@ -100,6 +218,32 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(taskService.createTask(taskDto));
     }
 
+    @Operation(summary = "Create, update and delete many tasks in one transaction. "
+            + "Every item is reported with the status it would have got as a separate request. "
+            + "A task updated and deleted, or deleted more than once, gets 422 for each of its items")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see the result of every item",
+                content = { @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = TaskBatchResultDto.class)) }),
+        @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+        @ApiResponse(responseCode = "422", description = "Wrong data provided or the batch is too large",
+                content = { @Content(mediaType = "application/json",
+                        array = @ArraySchema(schema = @Schema(implementation = String.class))) }),
+        @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content) })
+    @PostMapping(path = "/batch")
+    public ResponseEntity<Object> processBatch(
+            @Validated @RequestBody TaskBatchDto batch,
+            BindingResult bindingResult
+    ) {
+        if (bindingResult.hasErrors()) {
+            return ResponseEntity
+                    .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(ControllerUtils.getErrorMessagesFrom(bindingResult));
+        }
+
+        return ResponseEntity.ok(taskService.processBatch(batch));
+    }
+
     @Operation(summary = "Update task data by task's ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Task data successfully updated",
@@ -108,6 +252,8 @@ public class TaskController {
         @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
         @ApiResponse(responseCode = "403", description = "Access forbidden", content = @Content),
         @ApiResponse(responseCode = "404", description = "Task not found", content = @Content),
+        @ApiResponse(responseCode = "409", description = "Task changed since the given version", content = @Content),
+        @ApiResponse(responseCode = "428", description = "Version of the task not given", content = @Content),
         @ApiResponse(responseCode = "422", description = "Wrong data provided",
             content = { @Content(mediaType = "application/json",
                         array = @ArraySchema(schema = @Schema(implementation = String.class))) }),
@@ -124,11 +270,7 @@ public class TaskController {
                     .status(HttpStatus.UNPROCESSABLE_ENTITY)
                     .body(ControllerUtils.getErrorMessagesFrom(bindingResult));
         }
-        try {
-            return ResponseEntity.ok(taskService.updateTask(id, taskDto));
-        } catch (TaskNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
-        }
+        return ResponseEntity.ok(taskService.updateTask(id, taskDto));
     }
 
     @Operation(summary = "Delete a task by its ID")
@@ -137,7 +279,7 @@ public class TaskController {
         @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
         @ApiResponse(responseCode = "403", description = "Access forbidden", content = @Content),
         @ApiResponse(responseCode = "404", description = "Task not found",
-                content = { @Content(schema = @Schema(implementation = String.class)) }),
+                content = { @Content(schema = @Schema(implementation = ErrorResponseDto.class)) }),
         @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
     @DeleteMapping(path = "/{id}")
@@ -145,11 +287,22 @@ public class TaskController {
             @Parameter(description = "ID of a task to be deleted")
             @PathVariable Long id
     ) {
-        try {
-            taskService.deleteTask(id);
-            return ResponseEntity.ok().build();
-        } catch (TaskNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        taskService.deleteTask(id);
+        return ResponseEntity.ok().build();
+    }
+
+    private static <T> ResponseEntity<List<T>> toResponse(TaskPageDto<T> page) {
+        return toResponse(page, null);
+    }
+
+    private static <T> ResponseEntity<List<T>> toResponse(TaskPageDto<T> page, Instant nextChangedSince) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        if (nextChangedSince != null) {
+            response.header(CHANGED_SINCE_HEADER, nextChangedSince.toString());
         }
+        return response.body(page.getTasks());
     }
 }
@@ -1,6 +1,7 @@
 package hexlet.code.controller;
 
 import hexlet.code.controller.utils.ControllerUtils;
+import hexlet.code.controller.utils.VersionedBy;
 import hexlet.code.dto.TaskStatusDto;
 import hexlet.code.exception.DeletionException;
 import hexlet.code.exception.TaskStatusNotFoundException;
@@ -48,6 +49,7 @@ public class TaskStatusController {
                     schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
+    @VersionedBy(TaskStatus.class)
     @GetMapping(path = "/{id}")
     public ResponseEntity<Object> getTaskStatusById(
             @Parameter(description = "ID of a task status to be searched")
@@ -69,6 +71,7 @@ public class TaskStatusController {
         @ApiResponse(responseCode = "403", description = "Access forbidden", content = @Content),
         @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
+    @VersionedBy(TaskStatus.class)
     @GetMapping(path = "")
     public List<TaskStatus> getAllTaskStatuses() {
         return taskStatusService.getAllTaskStatuses();
@@ -1,10 +1,12 @@
 package hexlet.code.controller;
 
 import hexlet.code.controller.utils.ControllerUtils;
+import hexlet.code.controller.utils.VersionedBy;
 import hexlet.code.dto.UserDto;
 import hexlet.code.dto.UserResponseDto;
 import hexlet.code.exception.DeletionException;
 import hexlet.code.exception.UserNotFoundException;
+import hexlet.code.model.User;
 import hexlet.code.service.user.UserServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -45,6 +47,7 @@ public class UserController {
         @ApiResponse(responseCode = "403", description = "Access forbidden", content = @Content),
         @ApiResponse(responseCode = "404", description = "User not found", content = @Content),
         @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content) })
+    @VersionedBy(User.class)
     @GetMapping(path = "/{id}")
     public ResponseEntity<UserResponseDto> getUserById(
             @Parameter(description = "ID of a user to be searched")
@@ -63,6 +66,7 @@ public class UserController {
             content = { @Content(mediaType = "application/json",
                         array = @ArraySchema(schema = @Schema(implementation = UserResponseDto.class))) }),
         @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content) })
+    @VersionedBy(User.class)
     @GetMapping(path = "")
     public List<UserResponseDto> getAllUsers() {
         return userService.getAllUsers();
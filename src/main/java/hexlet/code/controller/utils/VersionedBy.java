@@ -0,0 +1,15 @@
+package hexlet.code.controller.utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a GET endpoint whose response changes only when entities of the given types change.
+// Such endpoints answer conditional requests with 304 before the handler runs.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface VersionedBy {
+
+    Class<?>[] value();
+}
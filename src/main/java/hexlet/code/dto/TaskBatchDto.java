@@ -0,0 +1,30 @@
+package hexlet.code.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchDto {
+
+    @NotNull
+    private List<@NotNull @Valid TaskDto> create = new ArrayList<>();
+
+    // New data of the tasks to be updated, keyed by task ID.
+    @NotNull
+    private Map<Long, @NotNull @Valid TaskDto> update = new LinkedHashMap<>();
+
+    @NotNull
+    private List<@NotNull Long> delete = new ArrayList<>();
+}
@@ -0,0 +1,24 @@
+package hexlet.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchItemResultDto {
+
+    // Position of the item in its list of the request.
+    private int index;
+
+    private Long id;
+
+    // Status the item would have got as a separate request.
+    private HttpStatus status;
+
+    private String message;
+}
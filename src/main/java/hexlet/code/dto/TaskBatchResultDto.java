@@ -0,0 +1,22 @@
+package hexlet.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchResultDto {
+
+    private List<TaskBatchItemResultDto> created = new ArrayList<>();
+
+    private List<TaskBatchItemResultDto> updated = new ArrayList<>();
+
+    private List<TaskBatchItemResultDto> deleted = new ArrayList<>();
+}
@@ -25,5 +25,9 @@ public class TaskDto {
 
     private Long executorId;
 
-    private Set<Long> labelIds;
+    private Set<@NotNull(message = "Label IDs can't contain empty values.") Long> labelIds;
+
+    // Version of the task the changes are based on, required by updates so that none of them overwrites
+    // a change made since the client read the task. Ignored when a task is created.
+    private Long version;
 }
@@ -0,0 +1,16 @@
+package hexlet.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TaskPageDto<T> {
+
+    private List<T> tasks;
+
+    // Opaque cursor of the next page, null when the last page has been reached.
+    private String nextCursor;
+}
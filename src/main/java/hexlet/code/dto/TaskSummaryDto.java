@@ -0,0 +1,31 @@
+package hexlet.code.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// Read model of a task in lists: only ids and display names of the associated entities.
+@Getter
+@Setter
+@NoArgsConstructor
+public class TaskSummaryDto {
+
+    private Long id;
+    private String name;
+    private Date createdAt;
+
+    private Long taskStatusId;
+    private String taskStatusName;
+
+    private Long authorId;
+    private String authorName;
+
+    private Long executorId;
+    private String executorName;
+
+    private List<LabelSummaryDto> labels = new ArrayList<>();
+}
@@ -1,7 +1,13 @@
 package hexlet.code.exception;
 
+import java.util.Collection;
+
 public class LabelNotFoundException extends RuntimeException {
     public LabelNotFoundException(Long id) {
         super("No label found with ID " + id + ".");
     }
+
+    public LabelNotFoundException(Collection<Long> ids) {
+        super("No labels found with IDs " + ids + ".");
+    }
 }
@@ -0,0 +1,7 @@
+package hexlet.code.exception;
+
+public class TaskVersionConflictException extends RuntimeException {
+    public TaskVersionConflictException(Long id, Long version) {
+        super("Task with ID " + id + " has been changed since version " + version + ".");
+    }
+}
@@ -0,0 +1,7 @@
+package hexlet.code.exception;
+
+public class TaskVersionRequiredException extends RuntimeException {
+    public TaskVersionRequiredException(Long id) {
+        super("The version of task with ID " + id + " the changes are based on is required.");
+    }
+}
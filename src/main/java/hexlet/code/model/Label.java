@@ -1,17 +1,25 @@
 package hexlet.code.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import hexlet.code.service.version.EntityChangeListener;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.util.Date;
@@ -19,7 +27,12 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "labels")
+@EntityListeners(EntityChangeListener.class)
+// Multi-loaded by ID on every task write, which then reads them from the second-level cache.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "labels", indexes = @Index(name = "idx_labels_name", columnList = "name"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,7 +44,8 @@ public class Label {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "label_sequence")
+    @SequenceGenerator(name = "label_sequence", sequenceName = "label_sequence", allocationSize = 50)
     private Long id;
 
     private String name;
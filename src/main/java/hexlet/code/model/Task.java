@@ -1,29 +1,54 @@
 package hexlet.code.model;
 
+import hexlet.code.service.version.EntityChangeListener;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "tasks")
+@EntityListeners(EntityChangeListener.class)
+// Indexes are created by the Liquibase changelog and mirrored here for the schema generated in tests.
+@Table(name = "tasks", indexes = {
+    @Index(name = "idx_tasks_task_status_id", columnList = "task_status_id"),
+    @Index(name = "idx_tasks_author_id", columnList = "author_id"),
+    @Index(name = "idx_tasks_executor_id", columnList = "executor_id"),
+    @Index(name = "idx_tasks_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_tasks_updated_at_id", columnList = "updated_at, id")
+})
+// To-one associations are fetch-joined by list queries. Labels are left out on purpose:
+// fetch-joining a collection breaks SQL-level limits, they are batch-fetched instead.
+@NamedEntityGraph(name = Task.ASSOCIATIONS_GRAPH, attributeNodes = {
+    @NamedAttributeNode("taskStatus"),
+    @NamedAttributeNode("author"),
+    @NamedAttributeNode("executor")
+})
 @Getter
 @Setter
 @Builder
@@ -31,8 +56,15 @@ import java.util.Set;
 @NoArgsConstructor
 public class Task {
 
+    public static final String ASSOCIATIONS_GRAPH = "Task.associations";
+    // Named as in the changelog, so that violations can be recognized in the generated test schema too.
+    public static final String AUTHOR_FOREIGN_KEY = "fk_author";
+
+    // IDs are reserved in blocks of 50 (matching the sequence increment in the changelog),
+    // which lets Hibernate batch inserts instead of fetching every generated ID from the database.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_sequence")
+    @SequenceGenerator(name = "task_sequence", sequenceName = "task_sequence", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -44,7 +76,7 @@ public class Task {
     private TaskStatus taskStatus;
 
     @ManyToOne
-    @JoinColumn(name = "author_id")
+    @JoinColumn(name = "author_id", foreignKey = @ForeignKey(name = AUTHOR_FOREIGN_KEY))
     private User author;
 
     @ManyToOne
@@ -55,7 +87,11 @@ public class Task {
     @JoinTable(
             name = "task_label",
             joinColumns = @JoinColumn(name = "task_id"),
-            inverseJoinColumns = @JoinColumn(name = "label_id")
+            inverseJoinColumns = @JoinColumn(name = "label_id"),
+            indexes = {
+                @Index(name = "idx_task_label_task_id_label_id", columnList = "task_id, label_id"),
+                @Index(name = "idx_task_label_label_id_task_id", columnList = "label_id, task_id")
+            }
     )
     @Builder.Default
     private Set<Label> labels = new HashSet<>();
@@ -63,4 +99,17 @@ public class Task {
     @Temporal(TemporalType.TIMESTAMP)
     @CreationTimestamp
     private Date createdAt;
+
+    // Set on insert as well, so that every task can be found by the time of its last change.
+    // It is the JVM clock at the flush, not the commit time: a change becomes visible up to the length
+    // of its transaction later than this time says, which the sync overlap has to cover.
+    @Temporal(TemporalType.TIMESTAMP)
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private Date updatedAt;
+
+    // Incremented by every update, including changes of the labels only. An update based on
+    // an outdated version fails instead of overwriting the concurrent change.
+    @Version
+    private Long version;
 }
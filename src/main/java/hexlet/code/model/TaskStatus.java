@@ -1,18 +1,26 @@
 package hexlet.code.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import hexlet.code.service.version.EntityChangeListener;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.util.ArrayList;
@@ -20,7 +28,14 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "statuses")
+@EntityListeners(EntityChangeListener.class)
+// Small reference data read with every task, so it's kept in the second-level cache.
+// Writes go through Hibernate, which updates or invalidates the cached entries.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// Associations bound by reference are Hibernate proxies, whose internals must not be serialized.
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "statuses", indexes = @Index(name = "idx_statuses_name", columnList = "name"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,7 +46,8 @@ public class TaskStatus {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_status_sequence")
+    @SequenceGenerator(name = "task_status_sequence", sequenceName = "task_status_sequence", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -0,0 +1,46 @@
+package hexlet.code.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
+
+// Written in the same transaction as the deletion of a task, so that clients syncing
+// by the time of the last change learn about the tasks that are gone.
+@Entity
+@Table(name = "task_tombstones", indexes = {
+    @Index(name = "idx_task_tombstones_deleted_at_id", columnList = "deleted_at, id")
+})
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_tombstone_sequence")
+    @SequenceGenerator(name = "task_tombstone_sequence", sequenceName = "task_tombstone_sequence",
+            allocationSize = 50)
+    private Long id;
+
+    private Long taskId;
+
+    // The time of the flush, like the updatedAt of tasks, see the sync overlap.
+    @Temporal(TemporalType.TIMESTAMP)
+    @CreationTimestamp
+    private Date deletedAt;
+}
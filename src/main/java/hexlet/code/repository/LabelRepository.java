@@ -1,13 +1,23 @@
 package hexlet.code.repository;
 
 import hexlet.code.model.Label;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LabelRepository extends JpaRepository<Label, Long> {
+
+    // The task form lists every label. The result is kept in the query cache until a label is written.
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Label> findAll();
+
     Optional<Label> findLabelById(Long id);
 
     Optional<Label> findLabelByName(String name);
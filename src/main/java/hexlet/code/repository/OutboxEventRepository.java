@@ -0,0 +1,23 @@
+package hexlet.code.repository;
+
+import hexlet.code.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // The oldest undelivered events, locked until the end of the transaction. Rows locked by another
+    // relay are skipped (lock timeout -2 is SKIP LOCKED), so several instances can drain the outbox.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    List<OutboxEvent> findAllByOrderByIdAsc(Pageable pageable);
+}
@@ -1,17 +1,37 @@
 package hexlet.code.repository;
 
+import com.querydsl.core.types.Predicate;
 import hexlet.code.model.Task;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long>,
-        QuerydslPredicateExecutor<Task> {
+        QuerydslPredicateExecutor<Task>, TaskRepositoryCustom {
+
+    @Override
+    @EntityGraph(Task.ASSOCIATIONS_GRAPH)
+    List<Task> findAll();
+
+    @Override
+    @EntityGraph(Task.ASSOCIATIONS_GRAPH)
+    Iterable<Task> findAll(Predicate predicate);
 
     Optional<Task> findTaskById(Long id);
 
     Optional<Task> findTaskByName(String name);
+
+    boolean existsByIdAndAuthorId(Long id, Long authorId);
+
+    // Deletion guards: each stops at the first matching row of the foreign key index.
+    boolean existsByTaskStatusId(Long taskStatusId);
+
+    boolean existsByAuthorIdOrExecutorId(Long authorId, Long executorId);
+
+    boolean existsByLabelsId(Long labelId);
 }
@@ -0,0 +1,12 @@
+package hexlet.code.repository;
+
+import com.querydsl.core.types.Predicate;
+import hexlet.code.dto.TaskSummaryDto;
+
+import java.util.List;
+
+public interface TaskRepositoryCustom {
+
+    // Tasks matching the predicate ordered by (createdAt, id), read as projections without managed entities.
+    List<TaskSummaryDto> findTaskSummaries(Predicate predicate, int limit);
+}
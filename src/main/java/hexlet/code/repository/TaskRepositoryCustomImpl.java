@@ -0,0 +1,81 @@
+package hexlet.code.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import hexlet.code.dto.LabelSummaryDto;
+import hexlet.code.dto.TaskSummaryDto;
+import hexlet.code.model.QLabel;
+import hexlet.code.model.QTask;
+import hexlet.code.model.QTaskStatus;
+import hexlet.code.model.QUser;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<TaskSummaryDto> findTaskSummaries(Predicate predicate, int limit) {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(entityManager);
+        QTask task = QTask.task;
+        QTaskStatus taskStatus = QTaskStatus.taskStatus;
+        QUser author = new QUser("author");
+        QUser executor = new QUser("executor");
+
+        List<TaskSummaryDto> summaries = queryFactory
+                .select(Projections.fields(TaskSummaryDto.class,
+                        task.id,
+                        task.name,
+                        task.createdAt,
+                        taskStatus.id.as("taskStatusId"),
+                        taskStatus.name.as("taskStatusName"),
+                        author.id.as("authorId"),
+                        author.firstName.concat(" ").concat(author.lastName).as("authorName"),
+                        executor.id.as("executorId"),
+                        executor.firstName.concat(" ").concat(executor.lastName).as("executorName")))
+                .from(task)
+                .join(task.taskStatus, taskStatus)
+                .join(task.author, author)
+                .leftJoin(task.executor, executor)
+                .where(predicate)
+                .orderBy(task.createdAt.asc(), task.id.asc())
+                .limit(limit)
+                .fetch();
+
+        if (!summaries.isEmpty()) {
+            addLabels(queryFactory, summaries);
+        }
+        return summaries;
+    }
+
+    // Labels of the whole page are read with a single query over the join table.
+    private void addLabels(JPAQueryFactory queryFactory, List<TaskSummaryDto> summaries) {
+        QTask task = QTask.task;
+        QLabel label = QLabel.label;
+        Map<Long, TaskSummaryDto> summariesById = summaries.stream()
+                .collect(Collectors.toMap(TaskSummaryDto::getId, Function.identity()));
+
+        List<Tuple> rows = queryFactory
+                .select(task.id, label.id, label.name)
+                .from(task)
+                .join(task.labels, label)
+                .where(task.id.in(summariesById.keySet()))
+                .orderBy(label.id.asc())
+                .fetch();
+
+        for (Tuple row : rows) {
+            summariesById.get(row.get(task.id))
+                    .getLabels()
+                    .add(new LabelSummaryDto(row.get(label.id), row.get(label.name)));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package hexlet.code.repository;
+
+import hexlet.code.model.TaskTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long>,
+        QuerydslPredicateExecutor<TaskTombstone> {
+}
@@ -1,50 +1,86 @@
 package hexlet.code.service;
 
+import hexlet.code.config.MetricsConfiguration;
+import hexlet.code.service.user.UserPrincipal;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt-secret}")
-    private String secret;
+    public static final String ID_CLAIM = "id";
+    public static final String ROLES_CLAIM = "roles";
 
-    private Claims getAllClaims(String token) {
-        return Jwts
+    private static final long TOKEN_TTL_MILLIS = 1000 * 60 * 60;
+
+    // Both are immutable and thread-safe, so they are built once instead of on every request.
+    private final Key signingKey;
+    private final JwtParser parser;
+
+    public JwtService(@Value("${jwt-secret}") String secret) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts
                 .parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+                .setSigningKey(signingKey)
+                .build();
     }
 
-    private <T> T getClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaims(token);
-        return claimsResolver.apply(claims);
+    // Verifies the signature and the expiration date in a single parse and returns the token's claims.
+    // Throws a JwtException (e.g. ExpiredJwtException) when the token is not valid.
+    @Timed(MetricsConfiguration.JWT_VERIFY_TIMER)
+    public Claims parseValidClaims(String token) throws JwtException {
+        return parser
+                .parseClaimsJws(token)
+                .getBody();
     }
 
-    public Date extractExpiration(String token) {
-        return getClaim(token, Claims::getExpiration);
+    public boolean hasPrincipalClaims(Claims claims) {
+        return claims.containsKey(ID_CLAIM) && claims.containsKey(ROLES_CLAIM);
     }
 
-    public String extractUsername(String token) {
-        return getClaim(token, Claims::getSubject);
+    // Restores the authenticated user from verified claims. There is no password: the token is the credential.
+    public UserPrincipal getPrincipal(Claims claims) {
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        List<SimpleGrantedAuthority> authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .toList();
+        return new UserPrincipal(
+                claims.get(ID_CLAIM, Long.class),
+                claims.getSubject(),
+                "",
+                authorities
+        );
     }
 
+    // Tokens of users with a known ID carry the ID and the roles, which is enough to authenticate
+    // further requests without loading the user.
+    @Timed(MetricsConfiguration.JWT_GENERATE_TIMER)
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof UserPrincipal principal) {
+            claims.put(ID_CLAIM, principal.getId());
+            claims.put(ROLES_CLAIM, principal.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .toList());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(
@@ -56,22 +92,8 @@ public class JwtService {
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + TOKEN_TTL_MILLIS))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
-
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-    }
-
-    public boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
 }
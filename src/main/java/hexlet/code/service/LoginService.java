@@ -1,10 +1,12 @@
 package hexlet.code.service;
 
+import hexlet.code.config.MetricsConfiguration;
 import hexlet.code.dto.LoginDto;
-import hexlet.code.service.user.UserDetailsServiceImpl;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -13,19 +15,20 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class LoginService {
 
-    private final UserDetailsServiceImpl userDetailsService;
     private final JwtService jwtService;
     private final AuthenticationManager authManager;
 
+    @Timed(MetricsConfiguration.LOGIN_TIMER)
     public String login(LoginDto request) throws AuthenticationException {
-        authManager.authenticate(
+        Authentication authentication = authManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getEmail(),
                         request.getPassword()
                 )
         );
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.getEmail());
+        // The principal is the user loaded while checking the password, so there's no need to load it again.
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         return jwtService.generateToken(userDetails);
     }
 }
@@ -1,22 +1,28 @@
 package hexlet.code.service.label;
 
+import hexlet.code.config.MetricsConfiguration;
 import hexlet.code.dto.LabelDto;
 import hexlet.code.exception.DeletionException;
 import hexlet.code.exception.LabelNotFoundException;
 import hexlet.code.model.Label;
 import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Optional;
 
 @Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 @AllArgsConstructor
 public class LabelServiceImpl implements LabelService {
 
     private LabelRepository labelRepository;
 
+    private TaskRepository taskRepository;
+
     @Override
     public Label getLabelById(Long id) {
         return labelRepository.findById(id).orElseThrow(
@@ -43,18 +49,19 @@ public class LabelServiceImpl implements LabelService {
         return labelRepository.save(label);
     }
 
+    // The guard stops at the first row of the (label_id, task_id) index. The label itself comes from
+    // the cache, and delete() removes that managed instance instead of selecting it again.
     @Override
+    @Transactional
     public void deleteLabel(Long id) {
-        Optional<Label> label = labelRepository.findById(id);
-
-        if (label.isEmpty()) {
-            throw new LabelNotFoundException(id);
-        }
+        Label label = labelRepository.findById(id).orElseThrow(
+                () -> new LabelNotFoundException(id)
+        );
 
-        boolean hasNoAssociatedTasks = label.get().getTasks().isEmpty();
+        boolean hasNoAssociatedTasks = !taskRepository.existsByLabelsId(id);
 
         if (hasNoAssociatedTasks) {
-            labelRepository.deleteById(id);
+            labelRepository.delete(label);
         } else {
             throw new DeletionException("Cannot delete label because there are tasks associated with it.");
         }
@@ -0,0 +1,47 @@
+package hexlet.code.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import hexlet.code.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends the relayed events to a local file, one JSON document per line. The path has to be given
+// explicitly and be absolute, so that the events don't end up wherever the service was started from.
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path file;
+    private final ObjectWriter writer;
+
+    public FileOutboxSink(@Value("${outbox.file}") Path file, ObjectMapper objectMapper) {
+        if (!file.isAbsolute()) {
+            throw new IllegalArgumentException("The outbox file has to be an absolute path: " + file);
+        }
+        this.file = file;
+        this.writer = objectMapper.writerFor(OutboxEvent.class);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        // One write per batch.
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (OutboxEvent event : events) {
+            lines.write(writer.writeValueAsBytes(event));
+            lines.write('\n');
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, lines.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,72 @@
+package hexlet.code.service.outbox;
+
+import hexlet.code.model.OutboxEvent;
+import hexlet.code.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Moves events from the outbox to the sink. Both steps run in the transaction of the polling flow
+// (see OutboxConfiguration): a batch is deleted only after the sink has accepted it.
+@Service
+@RequiredArgsConstructor
+public class OutboxRelay implements MeterBinder {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+
+    private final AtomicLong relayedEvents = new AtomicLong();
+    private final AtomicLong relayedBatches = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+
+    @Value("${outbox.relay.batch-size}")
+    private int batchSize;
+
+    // Returns null when there is nothing to relay, so that the flow sends no message.
+    public List<OutboxEvent> nextBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findAllByOrderByIdAsc(PageRequest.ofSize(batchSize));
+        return batch.isEmpty() ? null : batch;
+    }
+
+    public void deliver(List<OutboxEvent> batch) throws Exception {
+        outboxSink.publish(batch);
+        outboxEventRepository.deleteAllInBatch(batch);
+
+        relayedEvents.addAndGet(batch.size());
+        relayedBatches.incrementAndGet();
+        // The oldest event of a batch is the first one, events are relayed in the order of their IDs.
+        lastLagMillis.set(System.currentTimeMillis() - batch.get(0).getCreatedAt().getTime());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("outbox.relayed.events", this, OutboxRelay::getRelayedEvents)
+                .register(registry);
+        FunctionCounter.builder("outbox.relayed.batches", this, OutboxRelay::getRelayedBatches)
+                .register(registry);
+        Gauge.builder("outbox.lag", this, OutboxRelay::getLastLagMillis)
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    public long getRelayedEvents() {
+        return relayedEvents.get();
+    }
+
+    public long getRelayedBatches() {
+        return relayedBatches.get();
+    }
+
+    // Time the oldest event of the last relayed batch had spent in the outbox.
+    public long getLastLagMillis() {
+        return lastLagMillis.get();
+    }
+}
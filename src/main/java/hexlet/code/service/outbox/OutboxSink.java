@@ -0,0 +1,12 @@
+package hexlet.code.service.outbox;
+
+import hexlet.code.model.OutboxEvent;
+
+import java.util.List;
+
+// Destination of the events relayed from the outbox. Delivery is at least once: a batch is
+// delivered again when the relay fails before the batch is removed from the outbox.
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,35 @@
+package hexlet.code.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.model.OutboxEvent;
+import hexlet.code.repository.OutboxEventRepository;
+import hexlet.code.service.task.event.TaskChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Records task changes in the outbox. A plain event listener runs synchronously in the publisher's
+// transaction, so the event is stored if and only if the change is committed.
+@Component
+@RequiredArgsConstructor
+public class TaskOutboxWriter {
+
+    public static final String TASK_AGGREGATE = "task";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTaskChanged(TaskChangedEvent event) throws JsonProcessingException {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(TASK_AGGREGATE)
+                .aggregateId(event.id())
+                .eventType(event.type().name())
+                .payload(objectMapper.writeValueAsString(event))
+                .build());
+    }
+}
@@ -0,0 +1,62 @@
+package hexlet.code.service.slowlog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Queries or requests that took at least the threshold are written to the "slow-<name>" logger,
+// all of them or a sample. The settings can be changed at runtime through the slowlog actuator endpoint.
+public final class SlowLog {
+
+    private final String name;
+    private final Logger logger;
+    private final Executor writer;
+
+    // Replaced as a whole, so that a reader never sees half of an update.
+    private volatile Settings settings;
+
+    public SlowLog(String name, Executor writer, Settings settings) {
+        this.name = name;
+        this.logger = LoggerFactory.getLogger("slow-" + name);
+        this.writer = writer;
+        this.settings = settings;
+    }
+
+    public boolean isLogged(long elapsedMillis) {
+        Settings current = settings;
+        return current.enabled()
+                && elapsedMillis >= current.thresholdMillis()
+                && (current.sampleRate() >= 1 || ThreadLocalRandom.current().nextDouble() < current.sampleRate())
+                && logger.isWarnEnabled();
+    }
+
+    // The message is built on the writer thread, the calling thread only hands over the captured values.
+    public void write(Supplier<String> message) {
+        writer.execute(() -> logger.warn(message.get()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    // Settings that are null are left as they are.
+    public synchronized Settings update(Boolean enabled, Long thresholdMillis, Double sampleRate) {
+        Settings current = settings;
+        settings = new Settings(
+                enabled != null ? enabled : current.enabled(),
+                thresholdMillis != null ? thresholdMillis : current.thresholdMillis(),
+                sampleRate != null ? sampleRate : current.sampleRate()
+        );
+        return settings;
+    }
+
+    public record Settings(boolean enabled, long thresholdMillis, double sampleRate) {
+    }
+}
@@ -0,0 +1,70 @@
+package hexlet.code.service.slowlog;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// GET /actuator/slowlog shows the settings of the slow logs,
+// POST /actuator/slowlog/{name} with e.g. {"enabled": true, "thresholdMillis": 100} changes them until the restart.
+@Component
+@Endpoint(id = "slowlog")
+public class SlowLogEndpoint {
+
+    private final List<SlowLog> slowLogs;
+    private final SlowLogWriter slowLogWriter;
+
+    public SlowLogEndpoint(List<SlowLog> slowLogs, SlowLogWriter slowLogWriter) {
+        this.slowLogs = slowLogs;
+        this.slowLogWriter = slowLogWriter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowLogs() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (SlowLog slowLog : slowLogs) {
+            result.put(slowLog.getName(), slowLog.getSettings());
+        }
+        result.put("droppedEntries", slowLogWriter.getDroppedEntries());
+        return result;
+    }
+
+    @ReadOperation
+    public SlowLog.Settings slowLog(@Selector String name) {
+        return slowLogs.stream()
+                .filter(slowLog -> slowLog.getName().equals(name))
+                .findFirst()
+                .map(SlowLog::getSettings)
+                .orElse(null);
+    }
+
+    @WriteOperation
+    public SlowLog.Settings configure(
+            @Selector String name,
+            @Nullable Boolean enabled,
+            @Nullable Long thresholdMillis,
+            @Nullable Double sampleRate
+    ) {
+        SlowLog slowLog = slowLogs.stream()
+                .filter(candidate -> candidate.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new InvalidEndpointRequestException(
+                        "Unknown slow log: " + name, "Unknown slow log"));
+        if (thresholdMillis != null && thresholdMillis < 0) {
+            throw new InvalidEndpointRequestException(
+                    "Threshold must not be negative: " + thresholdMillis, "Invalid threshold");
+        }
+        if (sampleRate != null && (sampleRate < 0 || sampleRate > 1)) {
+            throw new InvalidEndpointRequestException(
+                    "Sample rate must be between 0 and 1: " + sampleRate, "Invalid sample rate");
+        }
+        return slowLog.update(enabled, thresholdMillis, sampleRate);
+    }
+}
@@ -0,0 +1,60 @@
+package hexlet.code.service.slowlog;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Writes the entries of the slow logs on a single background thread, so that request threads never
+// wait for the log appenders. When the queue is full, e.g. because the database slows down every query
+// at once, further entries are dropped and counted instead.
+@Component
+public class SlowLogWriter implements Executor, MeterBinder {
+
+    private final AtomicLong droppedEntries = new AtomicLong();
+    private final ThreadPoolExecutor executor;
+
+    public SlowLogWriter(@Value("${slow-log.queue-size}") int queueSize) {
+        this.executor = new ThreadPoolExecutor(
+                1,
+                1,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-log-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> droppedEntries.incrementAndGet()
+        );
+    }
+
+    @Override
+    public void execute(Runnable entry) {
+        executor.execute(entry);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("slowlog.dropped", this, SlowLogWriter::getDroppedEntries)
+                .register(registry);
+    }
+
+    public long getDroppedEntries() {
+        return droppedEntries.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
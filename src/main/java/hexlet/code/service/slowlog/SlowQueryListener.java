@@ -0,0 +1,104 @@
+package hexlet.code.service.slowlog;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Writes the statements that took at least the threshold of the query log. Bind parameters hold password hashes
+// and personal data, so they are only written when captureParameters is set, which is meant for development.
+// Values longer than maxParameterLength are cut, so that large texts don't flood the log.
+public class SlowQueryListener implements QueryExecutionListener {
+
+    // Parameters of further entries of a JDBC batch are only counted.
+    private static final int MAX_LOGGED_BATCH_ENTRIES = 10;
+
+    private final SlowLog slowLog;
+    private final boolean captureParameters;
+    private final int maxParameterLength;
+
+    public SlowQueryListener(SlowLog slowLog, boolean captureParameters, int maxParameterLength) {
+        this.slowLog = slowLog;
+        this.captureParameters = captureParameters;
+        this.maxParameterLength = maxParameterLength;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Statements are judged by their duration, which is only known afterwards.
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMillis = execInfo.getElapsedTime();
+        if (!slowLog.isLogged(elapsedMillis)) {
+            return;
+        }
+        boolean failed = !execInfo.isSuccess();
+        List<CapturedQuery> queries = queryInfoList.stream()
+                .map(this::capture)
+                .toList();
+        slowLog.write(() -> format(elapsedMillis, failed, queries));
+    }
+
+    // Only references to the values are taken on the calling thread, they are formatted by the writer.
+    private CapturedQuery capture(QueryInfo queryInfo) {
+        List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+        if (!captureParameters) {
+            return new CapturedQuery(queryInfo.getQuery(), List.of(), 0);
+        }
+        List<Object[]> parameters = parametersList.stream()
+                .limit(MAX_LOGGED_BATCH_ENTRIES)
+                .map(operations -> operations.stream().map(SlowQueryListener::valueOf).toArray())
+                .toList();
+        return new CapturedQuery(queryInfo.getQuery(), parameters, parametersList.size());
+    }
+
+    private static Object valueOf(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        if (operation.getMethod().getName().equals("setNull") || args.length < 2) {
+            return null;
+        }
+        return args[1];
+    }
+
+    private String format(long elapsedMillis, boolean failed, List<CapturedQuery> queries) {
+        StringBuilder message = new StringBuilder("Slow query (")
+                .append(elapsedMillis)
+                .append(failed ? " ms, failed):" : " ms):");
+        for (CapturedQuery query : queries) {
+            message.append(' ').append(query.sql());
+            for (Object[] values : query.parameters()) {
+                message.append(Arrays.stream(values)
+                        .map(this::formatValue)
+                        .collect(Collectors.joining(", ", " [", "]")));
+            }
+            int skippedEntries = query.batchSize() - query.parameters().size();
+            if (skippedEntries > 0) {
+                message.append(" (").append(skippedEntries).append(" more)");
+            }
+        }
+        return message.toString();
+    }
+
+    private String formatValue(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        String text = value.toString();
+        if (text.length() > maxParameterLength) {
+            text = text.substring(0, maxParameterLength) + "...(" + text.length() + " chars)";
+        }
+        return value instanceof CharSequence ? "'" + text + "'" : text;
+    }
+
+    private record CapturedQuery(String sql, List<Object[]> parameters, int batchSize) {
+    }
+}
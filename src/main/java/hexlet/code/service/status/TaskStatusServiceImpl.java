@@ -1,22 +1,28 @@
 package hexlet.code.service.status;
 
+import hexlet.code.config.MetricsConfiguration;
 import hexlet.code.dto.TaskStatusDto;
 import hexlet.code.exception.DeletionException;
 import hexlet.code.exception.TaskStatusNotFoundException;
 import hexlet.code.model.TaskStatus;
+import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.TaskStatusRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Optional;
 
 @Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 @AllArgsConstructor
 public class TaskStatusServiceImpl implements TaskStatusService {
 
     private TaskStatusRepository taskStatusRepository;
 
+    private TaskRepository taskRepository;
+
     @Override
     public TaskStatus getTaskStatusById(Long id) {
         TaskStatus taskStatus = taskStatusRepository.findById(id).orElseThrow(
@@ -45,18 +51,18 @@ public class TaskStatusServiceImpl implements TaskStatusService {
         return taskStatusRepository.save(taskStatus);
     }
 
+    // Deleting the status found here, rather than by ID, saves the select that deleteById would issue.
     @Override
+    @Transactional
     public void deleteTaskStatus(Long id) {
-        Optional<TaskStatus> taskStatus = taskStatusRepository.findById(id);
-
-        if (taskStatus.isEmpty()) {
-            throw new TaskStatusNotFoundException(id);
-        }
+        TaskStatus taskStatus = taskStatusRepository.findById(id).orElseThrow(
+                () -> new TaskStatusNotFoundException(id)
+        );
 
-        boolean hasNoAssociatedTasks = taskStatus.get().getTasks().isEmpty();
+        boolean hasNoAssociatedTasks = !taskRepository.existsByTaskStatusId(id);
 
         if (hasNoAssociatedTasks) {
-            taskStatusRepository.deleteById(id);
+            taskStatusRepository.delete(taskStatus);
         } else {
             throw new DeletionException("Cannot delete task status because there are tasks associated with it.");
         }
@@ -0,0 +1,77 @@
+package hexlet.code.service.task;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.DateTimePath;
+import com.querydsl.core.types.dsl.NumberPath;
+import hexlet.code.exception.InvalidDataException;
+import hexlet.code.model.QTask;
+import hexlet.code.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+// Position of the last row of a page in a (time, id) ordering: (createdAt, id) for task pages,
+// (updatedAt, id) for changed tasks and (deletedAt, id) for deletions.
+// Serialized as an opaque URL-safe string so that clients don't depend on its contents.
+@Getter
+@AllArgsConstructor
+public final class TaskCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final Date time;
+    private final Long id;
+
+    public static TaskCursor of(Task task) {
+        return new TaskCursor(task.getCreatedAt(), task.getId());
+    }
+
+    public static TaskCursor ofChange(Task task) {
+        return new TaskCursor(task.getUpdatedAt(), task.getId());
+    }
+
+    public static Predicate after(Predicate predicate, String cursor) {
+        return after(predicate, cursor, QTask.task.createdAt, QTask.task.id);
+    }
+
+    public static Predicate changedAfter(Predicate predicate, String cursor) {
+        return after(predicate, cursor, QTask.task.updatedAt, QTask.task.id);
+    }
+
+    // Keyset condition: everything strictly after the last row of the previous page.
+    public static Predicate after(Predicate predicate, String cursor, DateTimePath<Date> time, NumberPath<Long> id) {
+        BooleanBuilder where = new BooleanBuilder().and(predicate);
+        if (cursor != null) {
+            TaskCursor position = decode(cursor);
+            where.and(time.gt(position.getTime())
+                    .or(time.eq(position.getTime()).and(id.gt(position.getId()))));
+        }
+        return where;
+    }
+
+    public String encode() {
+        // Hibernate hands out java.sql.Timestamp, whose toInstant() keeps the sub-millisecond part.
+        String raw = time.toInstant() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            Instant instant = Instant.parse(raw.substring(0, separatorIndex));
+            Long id = Long.parseLong(raw.substring(separatorIndex + 1));
+            return new TaskCursor(Timestamp.from(instant), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidDataException(List.of("Invalid cursor provided."));
+        }
+    }
+}
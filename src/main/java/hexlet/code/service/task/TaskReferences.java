@@ -0,0 +1,62 @@
+package hexlet.code.service.task;
+
+import hexlet.code.dto.TaskDto;
+import hexlet.code.exception.LabelNotFoundException;
+import hexlet.code.exception.TaskStatusNotFoundException;
+import hexlet.code.exception.UserNotFoundException;
+import hexlet.code.model.Label;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.model.User;
+import lombok.AllArgsConstructor;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Statuses, executors and labels referenced by a batch of tasks, loaded up front with one query per kind.
+@AllArgsConstructor
+final class TaskReferences {
+
+    private final Map<Long, TaskStatus> taskStatuses;
+    private final Map<Long, User> executors;
+    private final Map<Long, Label> labels;
+
+    TaskStatus getTaskStatus(TaskDto taskDto) {
+        return Optional.ofNullable(taskStatuses.get(taskDto.getTaskStatusId()))
+                .orElseThrow(() -> new TaskStatusNotFoundException(taskDto.getTaskStatusId()));
+    }
+
+    User getExecutor(TaskDto taskDto) {
+        Long executorId = taskDto.getExecutorId();
+        if (executorId == null) {
+            return null;
+        }
+        return Optional.ofNullable(executors.get(executorId))
+                .orElseThrow(() -> new UserNotFoundException(executorId));
+    }
+
+    Set<Label> getLabels(TaskDto taskDto) {
+        Set<Label> result = new HashSet<>();
+        if (taskDto.getLabelIds() != null) {
+            taskDto.getLabelIds().stream()
+                    .map(labels::get)
+                    .filter(Objects::nonNull)
+                    .forEach(result::add);
+            requireAllLabels(taskDto.getLabelIds(), result.stream().map(Label::getId).toList());
+        }
+        return result;
+    }
+
+    // Reports every requested label that wasn't found, not just the first one.
+    static void requireAllLabels(Set<Long> labelIds, Collection<Long> foundIds) {
+        if (foundIds.size() < labelIds.size()) {
+            Set<Long> missingIds = new TreeSet<>(labelIds);
+            missingIds.removeAll(foundIds);
+            throw new LabelNotFoundException(missingIds);
+        }
+    }
+}
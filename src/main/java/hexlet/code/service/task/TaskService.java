@@ -1,20 +1,37 @@
 package hexlet.code.service.task;
 
+import hexlet.code.dto.TaskBatchDto;
+import hexlet.code.dto.TaskBatchResultDto;
 import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskPageDto;
+import hexlet.code.dto.TaskSummaryDto;
 import hexlet.code.model.Task;
+import hexlet.code.model.TaskTombstone;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
 import com.querydsl.core.types.Predicate;
 
 public interface TaskService {
 
     Task getTaskById(Long id);
 
-    List<Task> getTasks(Predicate predicate);
+    TaskPageDto<Task> getTasks(Predicate predicate, String cursor, Integer limit);
+
+    TaskPageDto<Task> getTasksChangedSince(Predicate predicate, Instant changedSince, String cursor, Integer limit);
+
+    TaskPageDto<TaskTombstone> getTasksDeletedSince(Instant deletedSince, String cursor, Integer limit);
+
+    TaskPageDto<TaskSummaryDto> getTaskSummaries(Predicate predicate, String cursor, Integer limit);
+
+    void exportTasks(OutputStream outputStream) throws IOException;
 
     Task createTask(TaskDto taskDto);
 
     Task updateTask(Long id, TaskDto taskDto);
 
     void deleteTask(Long id);
+
+    TaskBatchResultDto processBatch(TaskBatchDto batch);
 }
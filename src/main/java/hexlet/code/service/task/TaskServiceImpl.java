@@ -1,35 +1,91 @@
 package hexlet.code.service.task;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.querydsl.core.BooleanBuilder;
+import hexlet.code.config.MetricsConfiguration;
+import hexlet.code.dto.TaskBatchDto;
+import hexlet.code.dto.TaskBatchItemResultDto;
+import hexlet.code.dto.TaskBatchResultDto;
 import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskPageDto;
+import hexlet.code.dto.TaskSummaryDto;
+import hexlet.code.exception.InvalidDataException;
 import hexlet.code.exception.LabelNotFoundException;
 import hexlet.code.exception.TaskNotFoundException;
+import hexlet.code.exception.TaskStatusNotFoundException;
+import hexlet.code.exception.TaskVersionConflictException;
+import hexlet.code.exception.TaskVersionRequiredException;
 import hexlet.code.exception.UserNotFoundException;
 import hexlet.code.model.Label;
+import hexlet.code.model.QTask;
+import hexlet.code.model.QTaskTombstone;
 import hexlet.code.model.Task;
 import hexlet.code.model.TaskStatus;
+import hexlet.code.model.TaskTombstone;
 import hexlet.code.model.User;
-import hexlet.code.repository.LabelRepository;
 import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.repository.TaskTombstoneRepository;
 import hexlet.code.repository.UserRepository;
-import lombok.AllArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
+import hexlet.code.service.task.event.TaskChangedEvent;
+import hexlet.code.service.user.CurrentUser;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import com.querydsl.core.types.Predicate;
 import java.util.stream.Collectors;
 
 @Service
-@AllArgsConstructor
+@Timed(MetricsConfiguration.SERVICE_TIMER)
+@RequiredArgsConstructor
 public class TaskServiceImpl implements TaskService {
 
-    private TaskRepository taskRepository;
-    private TaskStatusRepository taskStatusRepository;
-    private UserRepository userRepository;
-    private LabelRepository labelRepository;
+    private static final Sort KEYSET_ORDER = Sort.by("createdAt", "id");
+    private static final Sort CHANGE_ORDER = Sort.by("updatedAt", "id");
+    private static final Sort DELETION_ORDER = Sort.by("deletedAt", "id");
+    private static final Sort EXPORT_ORDER = Sort.by("id");
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    // Fluent queries don't apply the repository's entity graph, the projection fetch-joins the same associations.
+    private static final List<String> ASSOCIATIONS = List.of("taskStatus", "author", "executor");
+
+    private final TaskRepository taskRepository;
+    private final TaskStatusRepository taskStatusRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final CurrentUser currentUser;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${tasks.page.max-size}")
+    private int maxPageSize;
+
+    @Value("${tasks.batch.max-size}")
+    private int maxBatchSize;
 
     @Override
     public Task getTaskById(Long id) {
@@ -39,88 +95,385 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
-    public List<Task> getTasks(Predicate predicate) {
-        if (predicate != null) {
-            return (List<Task>) taskRepository.findAll(predicate);
-        } else {
-            return taskRepository.findAll();
-        }
+    public TaskPageDto<Task> getTasks(Predicate predicate, String cursor, Integer limit) {
+        int pageSize = getPageSize(limit);
+        // One extra row tells whether there is a next page without issuing a count query.
+        List<Task> tasks = taskRepository.findBy(TaskCursor.after(predicate, cursor), query -> query
+                .sortBy(KEYSET_ORDER)
+                .project(ASSOCIATIONS)
+                .limit(pageSize + 1)
+                .all());
+        return toPage(tasks, pageSize, TaskCursor::of);
+    }
+
+    @Override
+    public TaskPageDto<Task> getTasksChangedSince(Predicate predicate, Instant changedSince,
+                                                  String cursor, Integer limit) {
+        int pageSize = getPageSize(limit);
+        // Served by the (updated_at, id) index, the pages follow the order of the changes.
+        Predicate where = new BooleanBuilder()
+                .and(TaskCursor.changedAfter(predicate, cursor))
+                .and(QTask.task.updatedAt.gt(Date.from(changedSince)));
+        List<Task> tasks = taskRepository.findBy(where, query -> query
+                .sortBy(CHANGE_ORDER)
+                .project(ASSOCIATIONS)
+                .limit(pageSize + 1)
+                .all());
+        return toPage(tasks, pageSize, TaskCursor::ofChange);
+    }
+
+    @Override
+    public TaskPageDto<TaskTombstone> getTasksDeletedSince(Instant deletedSince, String cursor, Integer limit) {
+        int pageSize = getPageSize(limit);
+        QTaskTombstone tombstone = QTaskTombstone.taskTombstone;
+        // Served by the (deleted_at, id) index.
+        Predicate where = new BooleanBuilder()
+                .and(TaskCursor.after(null, cursor, tombstone.deletedAt, tombstone.id))
+                .and(tombstone.deletedAt.gt(Date.from(deletedSince)));
+        List<TaskTombstone> tombstones = taskTombstoneRepository.findBy(where, query -> query
+                .sortBy(DELETION_ORDER)
+                .limit(pageSize + 1)
+                .all());
+        return toPage(tombstones, pageSize, deleted -> new TaskCursor(deleted.getDeletedAt(), deleted.getId()));
+    }
+
+    @Override
+    public TaskPageDto<TaskSummaryDto> getTaskSummaries(Predicate predicate, String cursor, Integer limit) {
+        int pageSize = getPageSize(limit);
+        List<TaskSummaryDto> summaries = taskRepository.findTaskSummaries(
+                TaskCursor.after(predicate, cursor), pageSize + 1);
+        return toPage(summaries, pageSize, summary -> new TaskCursor(summary.getCreatedAt(), summary.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTasks(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Task.class);
+
+        // Tasks are read in chunks by ID, so the labels of a chunk are batch-fetched together.
+        // Each chunk is then dropped from the persistence context, so that memory use doesn't grow
+        // with the number of exported rows.
+        List<Task> chunk;
+        Long lastId = null;
+        do {
+            Predicate after = new BooleanBuilder().and(lastId == null ? null : QTask.task.id.gt(lastId));
+            chunk = taskRepository.findBy(after, query -> query
+                    .sortBy(EXPORT_ORDER)
+                    .project(ASSOCIATIONS)
+                    .limit(EXPORT_CHUNK_SIZE)
+                    .all());
+            for (Task task : chunk) {
+                outputStream.write(writer.writeValueAsBytes(task));
+                outputStream.write('\n');
+                lastId = task.getId();
+            }
+            entityManager.clear();
+        } while (chunk.size() == EXPORT_CHUNK_SIZE);
+        outputStream.flush();
     }
 
+    // Write methods are transactional, so that the outbox event is stored together with the change.
     @Override
+    @Transactional
     public Task createTask(TaskDto taskDto) {
         Task task = Task.builder()
                 .name(taskDto.getName())
                 .description(taskDto.getDescription())
-                .author(getUserFromSecurityContext())
+                .author(getAuthorReference())
                 .taskStatus(getTaskStatusFromDto(taskDto))
                 .executor(getExecutorFromDto(taskDto))
                 .labels(getLabelsFormDto(taskDto))
                 .build();
 
-        return taskRepository.save(task);
+        Task createdTask = taskRepository.save(task);
+        flushAuthoredTasks(task.getAuthor().getId());
+        publish(TaskChangedEvent.Type.CREATED, createdTask.getId());
+        return createdTask;
     }
 
     @Override
+    @Transactional
     public Task updateTask(Long id, TaskDto taskDto) {
         Task task = taskRepository.findById(id).orElseThrow(
                 () -> new TaskNotFoundException(id)
         );
+        checkVersion(task, taskDto);
         task.setName(taskDto.getName());
         task.setDescription(taskDto.getDescription());
         task.setTaskStatus(getTaskStatusFromDto(taskDto));
         task.setExecutor(getExecutorFromDto(taskDto));
         task.setLabels(getLabelsFormDto(taskDto));
 
-        return taskRepository.save(task);
+        Task updatedTask = taskRepository.save(task);
+        publish(TaskChangedEvent.Type.UPDATED, id);
+        return updatedTask;
     }
 
     @Override
+    @Transactional
     public void deleteTask(Long id) {
         if (taskRepository.findById(id).isPresent()) {
             taskRepository.deleteById(id);
+            taskTombstoneRepository.save(TaskTombstone.builder().taskId(id).build());
+            publish(TaskChangedEvent.Type.DELETED, id);
         } else {
             throw new TaskNotFoundException(id);
         }
     }
 
-    private User getUserFromSecurityContext() {
-        org.springframework.security.core.userdetails.User principal =
-                (org.springframework.security.core.userdetails.User) SecurityContextHolder
-                        .getContext()
-                        .getAuthentication()
-                        .getPrincipal();
-        return userRepository.findUserByEmail(principal.getUsername()).orElseThrow();
+    @Override
+    @Transactional
+    public TaskBatchResultDto processBatch(TaskBatchDto batch) {
+        int batchSize = batch.getCreate().size() + batch.getUpdate().size() + batch.getDelete().size();
+        if (batchSize > maxBatchSize) {
+            throw new InvalidDataException(List.of("A batch can't contain more than " + maxBatchSize + " tasks."));
+        }
+
+        List<TaskDto> taskDtos = new ArrayList<>(batch.getCreate());
+        taskDtos.addAll(batch.getUpdate().values());
+        TaskReferences references = getReferences(taskDtos);
+
+        Set<Long> taskIds = new HashSet<>(batch.getUpdate().keySet());
+        taskIds.addAll(batch.getDelete());
+        Map<Long, Task> tasks = toMapById(taskRepository.findAllById(taskIds), Task::getId);
+
+        User author = batch.getCreate().isEmpty() && batch.getDelete().isEmpty()
+                ? null
+                : getAuthorReference();
+
+        TaskBatchResultDto result = new TaskBatchResultDto();
+        List<Task> tasksToSave = new ArrayList<>();
+
+        for (int i = 0; i < batch.getCreate().size(); i++) {
+            TaskDto taskDto = batch.getCreate().get(i);
+            try {
+                Task task = Task.builder()
+                        .name(taskDto.getName())
+                        .description(taskDto.getDescription())
+                        .author(author)
+                        .taskStatus(references.getTaskStatus(taskDto))
+                        .executor(references.getExecutor(taskDto))
+                        .labels(references.getLabels(taskDto))
+                        .build();
+                tasksToSave.add(task);
+                result.getCreated().add(new TaskBatchItemResultDto(i, null, HttpStatus.CREATED, null));
+            } catch (TaskStatusNotFoundException | UserNotFoundException | LabelNotFoundException e) {
+                result.getCreated().add(new TaskBatchItemResultDto(i, null, HttpStatus.NOT_FOUND, e.getMessage()));
+            }
+        }
+
+        // A task that is both updated and deleted, or deleted twice, has no single outcome:
+        // all of its items are rejected and the task is left as it is.
+        Set<Long> repeatedIds = getRepeatedIds(batch);
+
+        int index = 0;
+        for (Map.Entry<Long, TaskDto> update : batch.getUpdate().entrySet()) {
+            Long id = update.getKey();
+            result.getUpdated().add(repeatedIds.contains(id)
+                    ? repeatedItem(index++, id)
+                    : updateTask(index++, tasks.get(id), id, update.getValue(), references));
+        }
+
+        List<Task> tasksToDelete = new ArrayList<>();
+        for (int i = 0; i < batch.getDelete().size(); i++) {
+            Long id = batch.getDelete().get(i);
+            Task task = tasks.get(id);
+            if (repeatedIds.contains(id)) {
+                result.getDeleted().add(repeatedItem(i, id));
+            } else if (task == null) {
+                result.getDeleted().add(new TaskBatchItemResultDto(i, id, HttpStatus.NOT_FOUND,
+                        new TaskNotFoundException(id).getMessage()));
+            } else if (!task.getAuthor().getId().equals(author.getId())) {
+                // Same rule as for deleting a single task: only its author may do it.
+                result.getDeleted().add(new TaskBatchItemResultDto(i, id, HttpStatus.FORBIDDEN,
+                        "Only the author can delete a task."));
+            } else {
+                tasksToDelete.add(task);
+                result.getDeleted().add(new TaskBatchItemResultDto(i, id, HttpStatus.OK, null));
+            }
+        }
+
+        // Sequence-generated IDs are assigned on save, and the inserts, updates and deletes
+        // are flushed together in JDBC batches.
+        Iterator<Task> saved = taskRepository.saveAll(tasksToSave).iterator();
+        result.getCreated().stream()
+                .filter(item -> item.getStatus() == HttpStatus.CREATED)
+                .forEach(item -> item.setId(saved.next().getId()));
+        taskRepository.deleteAll(tasksToDelete);
+        taskTombstoneRepository.saveAll(tasksToDelete.stream()
+                .map(task -> TaskTombstone.builder().taskId(task.getId()).build())
+                .toList());
+        if (author != null) {
+            flushAuthoredTasks(author.getId());
+        }
+
+        publishSucceeded(result.getCreated(), TaskChangedEvent.Type.CREATED);
+        publishSucceeded(result.getUpdated(), TaskChangedEvent.Type.UPDATED);
+        publishSucceeded(result.getDeleted(), TaskChangedEvent.Type.DELETED);
+        return result;
+    }
+
+    // Transactional listeners get the events after the commit, or right away when there is no transaction.
+    private void publish(TaskChangedEvent.Type type, Long id) {
+        eventPublisher.publishEvent(new TaskChangedEvent(type, id));
+    }
+
+    private void publishSucceeded(List<TaskBatchItemResultDto> items, TaskChangedEvent.Type type) {
+        items.stream()
+                .filter(item -> item.getStatus().is2xxSuccessful())
+                .forEach(item -> publish(type, item.getId()));
+    }
+
+    private static Set<Long> getRepeatedIds(TaskBatchDto batch) {
+        Set<Long> seenIds = new HashSet<>(batch.getUpdate().keySet());
+        return batch.getDelete().stream()
+                .filter(id -> !seenIds.add(id))
+                .collect(Collectors.toSet());
+    }
+
+    private static TaskBatchItemResultDto repeatedItem(int index, Long id) {
+        return new TaskBatchItemResultDto(index, id, HttpStatus.UNPROCESSABLE_ENTITY,
+                "Task " + id + " appears more than once in the batch.");
+    }
+
+    private TaskBatchItemResultDto updateTask(int index, Task task, Long id, TaskDto taskDto,
+                                              TaskReferences references) {
+        if (task == null) {
+            return new TaskBatchItemResultDto(index, id, HttpStatus.NOT_FOUND,
+                    new TaskNotFoundException(id).getMessage());
+        }
+        try {
+            checkVersion(task, taskDto);
+            // Resolve everything before touching the managed task, so that a failed item leaves it unchanged.
+            TaskStatus taskStatus = references.getTaskStatus(taskDto);
+            User executor = references.getExecutor(taskDto);
+            Set<Label> labels = references.getLabels(taskDto);
+
+            task.setName(taskDto.getName());
+            task.setDescription(taskDto.getDescription());
+            task.setTaskStatus(taskStatus);
+            task.setExecutor(executor);
+            task.setLabels(labels);
+            return new TaskBatchItemResultDto(index, id, HttpStatus.OK, null);
+        } catch (TaskStatusNotFoundException | UserNotFoundException | LabelNotFoundException e) {
+            return new TaskBatchItemResultDto(index, id, HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (TaskVersionConflictException e) {
+            return new TaskBatchItemResultDto(index, id, HttpStatus.CONFLICT, e.getMessage());
+        } catch (TaskVersionRequiredException e) {
+            return new TaskBatchItemResultDto(index, id, HttpStatus.PRECONDITION_REQUIRED, e.getMessage());
+        }
+    }
+
+    // The version column itself guards against concurrent transactions. This check covers clients
+    // that read the task in an earlier request.
+    private static void checkVersion(Task task, TaskDto taskDto) {
+        if (taskDto.getVersion() == null) {
+            throw new TaskVersionRequiredException(task.getId());
+        }
+        if (!taskDto.getVersion().equals(task.getVersion())) {
+            throw new TaskVersionConflictException(task.getId(), taskDto.getVersion());
+        }
+    }
+
+    // Loads every status, executor and label referenced by the given tasks with one query per kind.
+    private TaskReferences getReferences(Collection<TaskDto> taskDtos) {
+        Set<Long> taskStatusIds = taskDtos.stream()
+                .map(TaskDto::getTaskStatusId)
+                .collect(Collectors.toSet());
+        Set<Long> executorIds = taskDtos.stream()
+                .map(TaskDto::getExecutorId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> labelIds = taskDtos.stream()
+                .map(TaskDto::getLabelIds)
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet());
+
+        return new TaskReferences(
+                toMapById(findAllCached(TaskStatus.class, taskStatusIds), TaskStatus::getId),
+                toMapById(userRepository.findAllById(executorIds), User::getId),
+                toMapById(findAllCached(Label.class, labelIds), Label::getId)
+        );
+    }
+
+    private static <T> Map<Long, T> toMapById(List<T> entities, Function<T, Long> getId) {
+        return entities.stream().collect(Collectors.toMap(getId, Function.identity()));
+    }
+
+    private int getPageSize(Integer limit) {
+        return limit == null ? maxPageSize : Math.min(Math.max(limit, 1), maxPageSize);
+    }
+
+    private static <T> TaskPageDto<T> toPage(List<T> rows, int pageSize, Function<T, TaskCursor> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new TaskPageDto<>(rows, null);
+        }
+        List<T> page = rows.subList(0, pageSize);
+        return new TaskPageDto<>(page, cursorOf.apply(page.get(pageSize - 1)).encode());
+    }
+
+    // The author is bound by reference: its ID comes from the principal, so writing the task doesn't
+    // query the users table. The proxy is still initialized when the task is serialized in a response.
+    private User getAuthorReference() {
+        Long authorId = currentUser.getId().orElseThrow();
+        return userRepository.getReferenceById(authorId);
     }
 
+    // A reference to a user deleted after the token was issued only fails on insert, with a violation
+    // of the author foreign key. The pending writes are flushed here to report it as a missing user.
+    private void flushAuthoredTasks(Long authorId) {
+        try {
+            taskRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase().contains(Task.AUTHOR_FOREIGN_KEY)) {
+                throw new UserNotFoundException(authorId);
+            }
+            throw e;
+        }
+    }
+
+    // Statuses and labels are looked up in the second-level cache, the executor is checked with an
+    // existence query and bound by reference, its row is only read if the task is serialized.
+    // So a task write costs the same number of queries however many labels it has.
     private TaskStatus getTaskStatusFromDto(TaskDto taskDto) {
-        return taskStatusRepository
-                .findTaskStatusById(taskDto.getTaskStatusId())
-                .orElseThrow(() -> new TaskNotFoundException(taskDto.getTaskStatusId()));
+        Long taskStatusId = taskDto.getTaskStatusId();
+        return taskStatusRepository.findById(taskStatusId)
+                .orElseThrow(() -> new TaskStatusNotFoundException(taskStatusId));
     }
 
     private User getExecutorFromDto(TaskDto taskDto) {
         Long executorId = taskDto.getExecutorId();
-        if (executorId != null) {
-            return userRepository
-                    .findUserById(executorId)
-                    .orElseThrow(() -> new UserNotFoundException(executorId));
-        } else {
+        if (executorId == null) {
             return null;
         }
+        if (!userRepository.existsById(executorId)) {
+            throw new UserNotFoundException(executorId);
+        }
+        return userRepository.getReferenceById(executorId);
     }
 
     private Set<Label> getLabelsFormDto(TaskDto taskDto) {
         Set<Long> labelIds = taskDto.getLabelIds();
-        if (labelIds != null) {
-            return labelIds.stream()
-                    .map(id -> labelRepository
-                            .findLabelById(id)
-                            .orElseThrow(() -> new LabelNotFoundException(id))
-                    )
-                    .collect(Collectors.toSet());
-        } else {
+        if (labelIds == null || labelIds.isEmpty()) {
             return new HashSet<>();
         }
+        List<Label> labels = findAllCached(Label.class, labelIds);
+        TaskReferences.requireAllLabels(labelIds, labels.stream().map(Label::getId).toList());
+        return new HashSet<>(labels);
+    }
+
+    // Unlike a query by IDs, a multi-load takes whatever it can from the persistence context and
+    // the second-level cache, and selects only the remaining entities.
+    private <T> List<T> findAllCached(Class<T> entityClass, Collection<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(entityClass)
+                .enableSessionCheck(true)
+                .multiLoad(List.copyOf(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
     }
 }
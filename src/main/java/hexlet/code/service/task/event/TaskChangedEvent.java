@@ -0,0 +1,11 @@
+package hexlet.code.service.task.event;
+
+// Published by the task service for every created, updated or deleted task.
+public record TaskChangedEvent(Type type, Long id) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,181 @@
+package hexlet.code.service.task.event;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Pushes committed task changes to the subscribed Server-Sent Events clients.
+// Every subscriber has a bounded buffer and is written to by at most one thread at a time, so a slow
+// client neither blocks the publishers nor delays the others. A client whose buffer overflows loses
+// the buffered events and gets a single "resync" event instead, telling it to reload the tasks.
+// Idle connections get a comment line every heartbeat interval, so that proxies don't close them
+// and gone clients are noticed.
+// The subscribers are written to by a bounded pool of sender threads. When all of them are busy with slow
+// clients and the queue of waiting subscribers is full, a subscriber that can't be queued loses its events
+// the same way as on an overflow of its buffer.
+// The events come from the transactions of this instance only: with several instances behind a load
+// balancer, a client sees the changes made through the instance it is connected to. Clients that need
+// every change have to sync by changedSince, or the feed has to be fed from the outbox instead.
+@Component
+public class TaskEventBroadcaster {
+
+    public static final String TASK_EVENT = "task";
+    public static final String RESYNC_EVENT = "resync";
+    public static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor();
+    private final int bufferSize;
+    private final long timeoutMillis;
+
+    public TaskEventBroadcaster(
+            @Value("${tasks.events.buffer-size}") int bufferSize,
+            @Value("${tasks.events.timeout}") Duration timeout,
+            @Value("${tasks.events.heartbeat}") Duration heartbeat,
+            @Value("${tasks.events.senders}") int senderCount,
+            @Value("${tasks.events.sender-queue-size}") int senderQueueSize
+    ) {
+        ThreadPoolExecutor senderPool = new ThreadPoolExecutor(senderCount, senderCount,
+                1, TimeUnit.MINUTES, new ArrayBlockingQueue<>(senderQueueSize));
+        senderPool.allowCoreThreadTimeOut(true);
+        this.senders = senderPool;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats,
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    // Runs after the commit, so that clients never see a change that was rolled back.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(event)) {
+                scheduleDrain(subscriber);
+            }
+        }
+    }
+
+    // Sent through the subscribers' buffers too, so that a heartbeat never interleaves with an event.
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.requestHeartbeat()) {
+                scheduleDrain(subscriber);
+            }
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        try {
+            senders.execute(subscriber::drain);
+        } catch (RejectedExecutionException e) {
+            subscriber.dropBuffered();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<TaskChangedEvent> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean resyncNeeded;
+        private volatile boolean heartbeatNeeded;
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<TaskChangedEvent> buffer) {
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        // Returns true when the caller has to schedule a drain.
+        private boolean offer(TaskChangedEvent event) {
+            if (!buffer.offer(event)) {
+                resyncNeeded = true;
+                buffer.clear();
+            }
+            return draining.compareAndSet(false, true);
+        }
+
+        private boolean requestHeartbeat() {
+            heartbeatNeeded = true;
+            return draining.compareAndSet(false, true);
+        }
+
+        // The drain couldn't be scheduled. The next event or heartbeat schedules it again,
+        // and the client then reloads the tasks instead of getting the lost events.
+        private void dropBuffered() {
+            resyncNeeded = true;
+            buffer.clear();
+            draining.set(false);
+        }
+
+        private void drain() {
+            try {
+                do {
+                    sendBuffered();
+                    draining.set(false);
+                    // Picks up the events offered between the last poll and the reset of the flag.
+                } while ((resyncNeeded || heartbeatNeeded || !buffer.isEmpty())
+                        && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // The client has gone away.
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void sendBuffered() throws IOException {
+            if (heartbeatNeeded) {
+                heartbeatNeeded = false;
+                emitter.send(SseEmitter.event().comment(HEARTBEAT_COMMENT));
+            }
+            while (true) {
+                if (resyncNeeded) {
+                    resyncNeeded = false;
+                    emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(""));
+                }
+                TaskChangedEvent event = buffer.poll();
+                if (event == null) {
+                    return;
+                }
+                emitter.send(SseEmitter.event().name(TASK_EVENT).data(event));
+            }
+        }
+    }
+}
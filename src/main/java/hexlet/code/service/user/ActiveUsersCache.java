@@ -0,0 +1,40 @@
+package hexlet.code.service.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hexlet.code.model.Role;
+import hexlet.code.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Short-lived record of the current role of each user ID, empty for deleted users. Used when authentication
+// is built from token claims only: tokens of deleted users are rejected, and changed roles apply within the TTL.
+@Component
+public class ActiveUsersCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Optional<Role>> roles;
+
+    public ActiveUsersCache(
+            UserRepository userRepository,
+            @Value("${auth.revocation-check.ttl}") Duration ttl,
+            @Value("${auth.revocation-check.max-size}") long maxSize
+    ) {
+        this.userRepository = userRepository;
+        this.roles = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public Optional<Role> getRole(Long userId) {
+        return roles.get(userId, userRepository::findRoleById);
+    }
+
+    public void evict(Long userId) {
+        roles.invalidate(userId);
+    }
+}
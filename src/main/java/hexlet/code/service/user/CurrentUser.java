@@ -0,0 +1,36 @@
+package hexlet.code.service.user;
+
+import hexlet.code.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+// Database ID of the authenticated user. Taken from the principal when it carries one,
+// so that it usually costs no query at all.
+@Component
+@RequiredArgsConstructor
+public class CurrentUser {
+
+    private final UserRepository userRepository;
+
+    public Optional<Long> getId() {
+        return getId(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    public Optional<Long> getId(Authentication authentication) {
+        if (authentication == null
+                || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return Optional.empty();
+        }
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return Optional.of(principal.getId());
+        }
+        // Principals without an ID, e.g. authenticated with a token issued before IDs were added to tokens.
+        return userRepository.findIdByEmail(authentication.getName());
+    }
+}
@@ -1,8 +1,11 @@
 package hexlet.code.service.user;
 
+import hexlet.code.config.CacheConfiguration;
+import hexlet.code.model.Role;
 import hexlet.code.model.User;
 import hexlet.code.repository.UserRepository;
-import lombok.AllArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,25 +15,51 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 
 @Service
-@AllArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    private final Cache userCache;
+
+    public UserDetailsServiceImpl(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.userCache = cacheManager.getCache(CacheConfiguration.USER_DETAILS_CACHE);
+    }
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository
-                .findUserByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("No user found with username: " + email));
+        CachedUser user = userCache.get(email, CachedUser.class);
+        if (user == null) {
+            user = userRepository
+                    .findUserByEmail(email)
+                    .map(CachedUser::of)
+                    .orElseThrow(() -> new UsernameNotFoundException("No user found with username: " + email));
+            userCache.put(email, user);
+        }
 
         List<SimpleGrantedAuthority> authorities = List.of(
-                new SimpleGrantedAuthority(user.getRole().name())
+                new SimpleGrantedAuthority(user.role().name())
         );
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
+        // A new object on every call: Spring Security erases the password of the returned user
+        // after authentication, which must not affect the cached entry.
+        return new UserPrincipal(
+                user.id(),
+                user.email(),
+                user.password(),
                 authorities
         );
     }
+
+    // Must be called whenever the user with this email is changed or deleted.
+    public void evict(String email) {
+        userCache.evict(email);
+    }
+
+    private record CachedUser(Long id, String email, String password, Role role) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getEmail(), user.getPassword(), user.getRole());
+        }
+    }
 }
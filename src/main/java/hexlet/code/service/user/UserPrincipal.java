@@ -0,0 +1,24 @@
+package hexlet.code.service.user;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// Authenticated user that also knows its database ID, so that it can be identified without a lookup by email.
+@Getter
+public class UserPrincipal extends User {
+
+    private final Long id;
+
+    public UserPrincipal(
+            Long id,
+            String username,
+            String password,
+            Collection<? extends GrantedAuthority> authorities
+    ) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+}
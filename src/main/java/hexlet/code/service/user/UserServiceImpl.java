@@ -1,12 +1,15 @@
 package hexlet.code.service.user;
 
+import hexlet.code.config.MetricsConfiguration;
 import hexlet.code.dto.UserDto;
 import hexlet.code.dto.UserResponseDto;
 import hexlet.code.exception.DeletionException;
 import hexlet.code.exception.UserNotFoundException;
 import hexlet.code.model.User;
 import hexlet.code.model.Role;
+import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -16,13 +19,20 @@ import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
 
     private UserRepository userRepository;
 
+    private TaskRepository taskRepository;
+
     private PasswordEncoder passwordEncoder;
 
+    private ActiveUsersCache activeUsersCache;
+
+    private UserDetailsServiceImpl userDetailsService;
+
     @Override
     public UserResponseDto getUserById(Long id) {
         User user = userRepository.findById(id).orElseThrow(
@@ -58,11 +68,14 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id).orElseThrow(
                 () -> new UserNotFoundException(id)
         );
+        String previousEmail = user.getEmail();
         user.setFirstName(userDto.getFirstName());
         user.setLastName(userDto.getLastName());
         user.setEmail(userDto.getEmail());
         user.setPassword(passwordEncoder.encode(userDto.getPassword()));
-        return convertUserToResponseDto(userRepository.save(user));
+        User updatedUser = userRepository.save(user);
+        userDetailsService.evict(previousEmail);
+        return convertUserToResponseDto(updatedUser);
     }
 
     @Override
@@ -73,10 +86,12 @@ public class UserServiceImpl implements UserService {
             throw new UserNotFoundException(id);
         }
 
-        boolean hasNoAssociatedTasks = user.get().getTasksToDo().isEmpty() && user.get().getTasksAuthored().isEmpty();
+        boolean hasNoAssociatedTasks = !taskRepository.existsByAuthorIdOrExecutorId(id, id);
 
         if (hasNoAssociatedTasks) {
             userRepository.deleteById(id);
+            activeUsersCache.evict(id);
+            userDetailsService.evict(user.get().getEmail());
         } else {
             throw new DeletionException("Cannot delete user because there are tasks associated with this user.");
         }
@@ -0,0 +1,23 @@
+package hexlet.code.service.version;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+
+// JPA entity listener, instantiated by Spring through Hibernate's bean container.
+@Component
+@RequiredArgsConstructor
+public class EntityChangeListener {
+
+    private final EntityVersions entityVersions;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        entityVersions.markChanged(Hibernate.getClass(entity));
+    }
+}
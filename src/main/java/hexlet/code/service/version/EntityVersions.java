@@ -0,0 +1,139 @@
+package hexlet.code.service.version;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.ActionQueue;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Modification counters per entity type, kept in the entity_versions table so that every instance
+// sees the same ones. They answer "has anything of these types changed" with a single primary key
+// lookup, which is all that an ETag of a list or of a single entity needs. On PostgreSQL, triggers
+// count every write, including those that bypass Hibernate: bulk and native statements or manual fixes.
+// They are then the only writer of the counters, elsewhere it is the commit of a Hibernate session.
+@Component
+@RequiredArgsConstructor
+public class EntityVersions {
+
+    private static final String INCREMENT_SQL =
+            "UPDATE entity_versions SET version = version + 1, modified_at = ? WHERE entity_type = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO entity_versions (entity_type, version, modified_at) VALUES (?, 1, ?)";
+    private static final String SELECT_SQL =
+            "SELECT entity_type, version, modified_at FROM entity_versions WHERE entity_type IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    // Looked up on use: the listener calling this is created while the entity manager factory is built.
+    private final ObjectProvider<EntityManager> entityManager;
+    // Whether the database counts the writes itself, found out on the first write.
+    private volatile Boolean countedByTriggers;
+
+    // Counters move once per transaction and type, after Hibernate's last flush and right before the commit.
+    // The increment is part of the transaction, so a reader never sees the new version with the old data,
+    // and the row lock is held only for the commit itself.
+    public void markChanged(Class<?> entityType) {
+        if (isCountedByTriggers()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> changedTypes = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (changedTypes == null) {
+            // Sorted, so that concurrent transactions lock the rows in the same order.
+            Set<String> newChangedTypes = new TreeSet<>();
+            ActionQueue actionQueue = entityManager.getObject().unwrap(SessionImplementor.class).getActionQueue();
+            actionQueue.registerProcess((BeforeTransactionCompletionProcess) session ->
+                    session.doWork(connection -> increment(connection, newChangedTypes)));
+            actionQueue.registerProcess((AfterTransactionCompletionProcess) (success, session) ->
+                    TransactionSynchronizationManager.unbindResourceIfPossible(this));
+            TransactionSynchronizationManager.bindResource(this, newChangedTypes);
+            changedTypes = newChangedTypes;
+        }
+        changedTypes.add(entityType.getSimpleName());
+    }
+
+    // Should be taken before the data is read, so that a change committed in between
+    // makes the next request load the data again.
+    public Snapshot of(Class<?>... entityTypes) {
+        List<String> names = Arrays.stream(entityTypes).map(Class::getSimpleName).toList();
+        Map<String, Version> versions = new HashMap<>();
+        jdbcTemplate.query(
+                String.format(SELECT_SQL, String.join(", ", Collections.nCopies(names.size(), "?"))),
+                resultSet -> {
+                    versions.put(resultSet.getString(1), new Version(
+                            resultSet.getLong(2),
+                            resultSet.getTimestamp(3).getTime()
+                    ));
+                },
+                names.toArray()
+        );
+
+        StringBuilder eTag = new StringBuilder("\"");
+        long lastModified = -1;
+        for (String name : names) {
+            Version version = versions.getOrDefault(name, new Version(0, -1));
+            eTag.append(version.counter()).append('-');
+            lastModified = Math.max(lastModified, version.modifiedAt());
+        }
+        // The modification time tells apart equal counters of a recreated database.
+        eTag.append(Long.toString(Math.max(lastModified, 0), Character.MAX_RADIX)).append('"');
+        return new Snapshot(eTag.toString(), lastModified);
+    }
+
+    // The triggers of the changelog are created on PostgreSQL only.
+    private boolean isCountedByTriggers() {
+        Boolean counted = countedByTriggers;
+        if (counted == null) {
+            counted = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+            countedByTriggers = counted;
+        }
+        return counted;
+    }
+
+    private static void increment(Connection connection, Set<String> entityTypes) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement increment = connection.prepareStatement(INCREMENT_SQL)) {
+            for (String entityType : entityTypes) {
+                increment.setTimestamp(1, now);
+                increment.setString(2, entityType);
+                if (increment.executeUpdate() == 0) {
+                    insert(connection, entityType, now);
+                }
+            }
+        }
+    }
+
+    // Types are seeded by the changelog, a missing row only means a type was added since.
+    private static void insert(Connection connection, String entityType, Timestamp now) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+            insert.setString(1, entityType);
+            insert.setTimestamp(2, now);
+            insert.executeUpdate();
+        }
+    }
+
+    // Last-Modified is -1, i.e. not sent, when none of the types has a version yet.
+    public record Snapshot(String eTag, long lastModified) {
+    }
+
+    private record Version(long counter, long modifiedAt) {
+    }
+}
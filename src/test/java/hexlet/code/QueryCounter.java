@@ -0,0 +1,88 @@
+package hexlet.code;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Counts the SQL statements and entity loads of the code run after start(), typically a single request:
+//
+//     queryCounter.start();
+//     mockMvc.perform(get("/api/tasks")).andExpect(status().isOk());
+//     queryCounter.assertMaxStatements(4);
+//
+// Statements are counted at the data source, so those of JdbcTemplate and plain JDBC count as well as
+// Hibernate's. Entity loads come from Hibernate's statistics. Both are global: nothing else may use
+// the database meanwhile.
+@Component
+public class QueryCounter implements QueryExecutionListener {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final Queue<String> queries = new ConcurrentLinkedQueue<>();
+
+    // The data source is wrapped by SlowLogConfiguration, the counter joins the listeners of the wrapper.
+    @PostConstruct
+    public void register() {
+        if (!(dataSource instanceof ProxyDataSource proxyDataSource)) {
+            throw new IllegalStateException("Statements can't be counted, the data source is not a proxy.");
+        }
+        proxyDataSource.getProxyConfig().getQueryListener().addListener(this);
+    }
+
+    // The persistence context shared with the test transaction is flushed and cleared, so that
+    // the counted code has to load everything from the database, as it would in production.
+    public void start() {
+        entityManager.flush();
+        entityManager.clear();
+        getStatistics().clear();
+        queries.clear();
+    }
+
+    public Statistics getStatistics() {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    // A JDBC batch counts once, as it is a single round trip.
+    public long getStatementCount() {
+        return queries.size();
+    }
+
+    // Fails when more statements were issued than expected, e.g. because an association is loaded
+    // entity by entity (N+1) instead of together with the rest of the page.
+    public void assertMaxStatements(long maxStatements) {
+        List<String> issued = List.copyOf(queries);
+        assertTrue(issued.size() <= maxStatements, () -> "Expected at most " + maxStatements
+                + " SQL statements, but " + issued.size() + " were issued. Queries: "
+                + String.join("; ", issued));
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+        // Only statements that were actually executed count.
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+        queries.add(queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery());
+    }
+}
@@ -87,6 +87,25 @@ public class TestUtils {
         taskStatusRepository.save(status);
     }
 
+    // Every task gets its own author, status and label, so that loading associations one by one
+    // would cost additional queries per task.
+    public void persistMockTasks(int count) {
+        for (int i = 0; i < count; i++) {
+            User user = persistMockUser("author" + i + "@mail.com", "Author", "No. " + i);
+            TaskStatus status = persistMockTaskStatus("Status " + i);
+            Label label = persistMockLabel("Label " + i);
+            taskRepository.save(
+                    Task.builder()
+                            .name("Task " + i)
+                            .author(user)
+                            .executor(user)
+                            .taskStatus(status)
+                            .labels(Set.of(label))
+                            .build()
+            );
+        }
+    }
+
     public void persistMockTask2() {
         User user = persistMockUser("john@johnson.com", "John", "Johnson");
         TaskStatus status = persistMockTaskStatus("Updated");
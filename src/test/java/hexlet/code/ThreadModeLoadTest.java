@@ -0,0 +1,160 @@
+package hexlet.code;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Throughput of GET /api/tasks with and without virtual threads when every statement takes a while.
+// Both modes get Tomcat's default of 200 threads and the default pool of 10 connections, and more
+// clients than threads. The pool is the bottleneck either way, so virtual threads have to keep up
+// with platform ones: the semaphore in front of the pool may not cost throughput.
+// Run with ./gradlew loadTest, the results are written to build/load/thread-modes.json.
+@Tag("load")
+class ThreadModeLoadTest {
+
+    private static final Duration STATEMENT_LATENCY = Duration.ofMillis(20);
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+    private static final int CLIENTS = 400;
+    private static final int TOMCAT_THREADS = 200;
+    private static final int POOL_SIZE = 10;
+    // Share of the platform threads' throughput that virtual threads must reach, the rest is noise.
+    private static final double MIN_THROUGHPUT_RATIO = 0.9;
+    private static final Path REPORT = Path.of("build/load/thread-modes.json");
+
+    @Test
+    void testThroughputUnderDatabaseLatency() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+        writeReport(new Report(platform, virtual));
+
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+        assertTrue(virtual.throughput() >= platform.throughput() * MIN_THROUGHPUT_RATIO,
+                "Virtual threads: " + virtual.throughput() + " requests/s, platform threads: "
+                        + platform.throughput() + " requests/s");
+    }
+
+    private static void writeReport(Report report) throws Exception {
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(report));
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManager.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-" + mode,
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "threads.virtual.enabled=" + virtualThreads
+                )
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new LatencyInjector()))
+                .run()) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/api/tasks");
+
+            drive(uri, WARM_UP);
+            return drive(uri, MEASUREMENT);
+        }
+    }
+
+    private Result drive(URI uri, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        AtomicLong completed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            (response.statusCode() == 200 ? completed : errors).incrementAndGet();
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        return new Result(completed.get() * 1000.0 / duration.toMillis(), errors.get());
+    }
+
+    private record Result(double throughput, long errors) {
+    }
+
+    private record Report(Result platform, Result virtual) {
+    }
+
+    // Delays every statement while its connection is held, like a slow database does.
+    private static final class LatencyInjector implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return withLatency(super.getConnection());
+                }
+            };
+        }
+
+        private static Connection withLatency(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(
+                    LatencyInjector.class.getClassLoader(),
+                    new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare") || method.getName().equals("createStatement")) {
+                            Thread.sleep(STATEMENT_LATENCY.toMillis());
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
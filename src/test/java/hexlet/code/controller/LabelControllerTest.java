@@ -5,10 +5,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.database.rider.core.api.configuration.DBUnit;
 import com.github.database.rider.core.api.dataset.DataSet;
 import com.github.database.rider.junit5.api.DBRider;
+import hexlet.code.QueryCounter;
 import hexlet.code.TestUtils;
 import hexlet.code.dto.LabelDto;
 import hexlet.code.model.Label;
 import hexlet.code.repository.LabelRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -47,6 +49,12 @@ class LabelControllerTest {
     @Autowired
     private TestUtils testUtils;
 
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private EntityManager entityManager;
+
     private static final ObjectMapper MAPPER = new ObjectMapper();
     private static final String BASE_TEST_URL = "/api/labels";
 
@@ -64,6 +72,21 @@ class LabelControllerTest {
         assertEquals(3, labels.size());
     }
 
+    @Test
+    @WithMockUser
+    void testGetAllLabelsStatementBudget() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            testUtils.persistMockLabel("Label " + i);
+        }
+        queryCounter.start();
+
+        mockMvc.perform(get(BASE_TEST_URL))
+                .andExpect(status().isOk());
+
+        // The version rows for the ETag, then the labels.
+        queryCounter.assertMaxStatements(2);
+    }
+
     @Test
     @WithMockUser
     void testGetLabelByValidId() throws Exception {
@@ -160,6 +183,20 @@ class LabelControllerTest {
         assertTrue(labelRepository.findLabelByName("bug").isEmpty());
     }
 
+    @Test
+    @WithMockUser
+    void testDeleteLabelStatementBudget() throws Exception {
+        Label label = labelRepository.findLabelByName("bug").orElseThrow();
+        queryCounter.start();
+
+        mockMvc.perform(delete(BASE_TEST_URL + "/" + label.getId()))
+                .andExpect(status().isOk());
+        entityManager.flush();
+
+        // The label, the check for its tasks and the delete itself.
+        queryCounter.assertMaxStatements(3);
+    }
+
     @Test
     void testDeleteLabelUnauthenticated() throws Exception {
         Label label = labelRepository.findLabelByName("question").orElseThrow();
@@ -3,29 +3,57 @@ package hexlet.code.controller;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.database.rider.core.api.configuration.DBUnit;
+import hexlet.code.QueryCounter;
 import hexlet.code.TestUtils;
+import hexlet.code.config.ErrorCountingExceptionResolver;
+import hexlet.code.config.MetricsConfiguration;
+import hexlet.code.dto.TaskBatchDto;
+import hexlet.code.dto.TaskBatchResultDto;
 import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskSummaryDto;
+import hexlet.code.model.OutboxEvent;
 import hexlet.code.model.Task;
+import hexlet.code.model.TaskTombstone;
 import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.OutboxEventRepository;
 import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.service.task.event.TaskChangedEvent;
+import hexlet.code.service.task.event.TaskEventBroadcaster;
+import hexlet.code.service.user.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -53,6 +81,24 @@ class TaskControllerTest {
     @Autowired
     private TestUtils testUtils;
 
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tasks.page.max-size}")
+    private int maxPageSize;
+
     private static final ObjectMapper MAPPER = new ObjectMapper();
     private static final String BASE_TEST_URL = "/api/tasks";
 
@@ -74,6 +120,22 @@ class TaskControllerTest {
         assertEquals(2, tasks.size());
     }
 
+    @Test
+    void testGetAllTasksIsLimitedByMaxPageSize() throws Exception {
+        testUtils.persistMockTasks(maxPageSize);
+
+        MockHttpServletResponse response = mockMvc
+                .perform(get(BASE_TEST_URL))
+                .andReturn()
+                .getResponse();
+
+        List<Task> tasks = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() { });
+
+        assertEquals(200, response.getStatus());
+        assertEquals(maxPageSize, tasks.size());
+        assertNotNull(response.getHeader(TaskController.NEXT_CURSOR_HEADER));
+    }
+
     @Test
     void testGetTasksByParams() throws Exception {
         Long taskStatusId = taskStatusRepository.findTaskStatusByName("Cancelled").orElseThrow().getId();
@@ -94,6 +156,247 @@ class TaskControllerTest {
         assertFalse(response.getContentAsString().contains("Clean up text"));
     }
 
+    @Test
+    void testGetTasksByCursor() throws Exception {
+        MockHttpServletResponse firstPage = mockMvc
+                .perform(get(BASE_TEST_URL + "?limit=1"))
+                .andReturn()
+                .getResponse();
+
+        List<Task> firstTasks = MAPPER.readValue(firstPage.getContentAsString(), new TypeReference<>() { });
+        String nextCursor = firstPage.getHeader(TaskController.NEXT_CURSOR_HEADER);
+
+        assertEquals(200, firstPage.getStatus());
+        assertEquals(1, firstTasks.size());
+        assertNotNull(nextCursor);
+
+        MockHttpServletResponse secondPage = mockMvc
+                .perform(get(BASE_TEST_URL + "?limit=1&cursor=" + nextCursor))
+                .andReturn()
+                .getResponse();
+
+        List<Task> secondTasks = MAPPER.readValue(secondPage.getContentAsString(), new TypeReference<>() { });
+
+        assertEquals(200, secondPage.getStatus());
+        assertEquals(1, secondTasks.size());
+        assertNotEquals(firstTasks.get(0).getId(), secondTasks.get(0).getId());
+        assertNull(secondPage.getHeader(TaskController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void testGetTasksByInvalidCursor() throws Exception {
+        mockMvc.perform(get(BASE_TEST_URL + "?cursor=invalid"))
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    void testGetTasksChangedSince() throws Exception {
+        entityManager.flush();
+        Instant now = Instant.now();
+
+        MockHttpServletResponse response = mockMvc
+                .perform(get(BASE_TEST_URL).param("changedSince", now.minus(Duration.ofHours(1)).toString()))
+                .andReturn()
+                .getResponse();
+        List<Task> tasks = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() { });
+
+        assertEquals(200, response.getStatus());
+        assertEquals(2, tasks.size());
+        assertNotNull(response.getHeader(TaskController.CHANGED_SINCE_HEADER));
+        assertNull(response.getHeader(TaskController.NEXT_CURSOR_HEADER));
+
+        MockHttpServletResponse emptyResponse = mockMvc
+                .perform(get(BASE_TEST_URL).param("changedSince", now.plus(Duration.ofHours(1)).toString()))
+                .andReturn()
+                .getResponse();
+        List<Task> noTasks = MAPPER.readValue(emptyResponse.getContentAsString(), new TypeReference<>() { });
+
+        assertTrue(noTasks.isEmpty());
+    }
+
+    @Test
+    void testGetTasksChangedSinceByPages() throws Exception {
+        entityManager.flush();
+        String changedSince = Instant.now().minus(Duration.ofHours(1)).toString();
+
+        MockHttpServletResponse firstPage = mockMvc
+                .perform(get(BASE_TEST_URL).param("changedSince", changedSince).param("limit", "1"))
+                .andReturn()
+                .getResponse();
+        List<Task> firstTasks = MAPPER.readValue(firstPage.getContentAsString(), new TypeReference<>() { });
+        String nextCursor = firstPage.getHeader(TaskController.NEXT_CURSOR_HEADER);
+
+        assertEquals(1, firstTasks.size());
+        assertNotNull(nextCursor);
+        assertNotNull(firstPage.getHeader(TaskController.CHANGED_SINCE_HEADER));
+
+        MockHttpServletResponse secondPage = mockMvc
+                .perform(get(BASE_TEST_URL)
+                        .param("changedSince", changedSince)
+                        .param("limit", "1")
+                        .param("cursor", nextCursor))
+                .andReturn()
+                .getResponse();
+        List<Task> secondTasks = MAPPER.readValue(secondPage.getContentAsString(), new TypeReference<>() { });
+
+        assertEquals(1, secondTasks.size());
+        assertNotEquals(firstTasks.get(0).getId(), secondTasks.get(0).getId());
+        assertNull(secondPage.getHeader(TaskController.NEXT_CURSOR_HEADER));
+        // Only the first page tells the value for the next sync.
+        assertNull(secondPage.getHeader(TaskController.CHANGED_SINCE_HEADER));
+    }
+
+    @Test
+    void testGetTasksNotModified() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get(BASE_TEST_URL))
+                .andReturn()
+                .getResponse();
+        String eTag = response.getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        assertNotNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+
+        queryCounter.start();
+
+        MockHttpServletResponse notModifiedResponse = mockMvc
+                .perform(get(BASE_TEST_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andReturn()
+                .getResponse();
+
+        assertEquals(304, notModifiedResponse.getStatus());
+        assertEquals("", notModifiedResponse.getContentAsString());
+        // Only the version rows are read, with plain JDBC, no entity is loaded.
+        assertEquals(1, queryCounter.getStatementCount());
+        assertEquals(0, queryCounter.getStatistics().getEntityLoadCount());
+
+        mockMvc.perform(get(BASE_TEST_URL).header(HttpHeaders.IF_NONE_MATCH, "\"outdated\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testExportTasks() throws Exception {
+        MockHttpServletResponse response = mockMvc
+                .perform(get(BASE_TEST_URL + "/export"))
+                .andReturn()
+                .getResponse();
+
+        List<String> lines = response.getContentAsString().lines().toList();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(TaskController.NDJSON_MEDIA_TYPE, response.getContentType());
+        assertEquals(2, lines.size());
+        assertEquals("Fix bugs", MAPPER.readValue(lines.get(0), Task.class).getName());
+        assertEquals("Clean up text", MAPPER.readValue(lines.get(1), Task.class).getName());
+    }
+
+    @Test
+    void testExportTasksStatementBudget() throws Exception {
+        testUtils.persistMockTasks(200);
+        queryCounter.start();
+
+        MockHttpServletResponse response = mockMvc
+                .perform(get(BASE_TEST_URL + "/export"))
+                .andReturn()
+                .getResponse();
+
+        assertEquals(202, response.getContentAsString().lines().count());
+        // One chunk of tasks with their status, author and executor, then its labels in batches of 100 tasks.
+        queryCounter.assertMaxStatements(4);
+    }
+
+    @Test
+    void testGetTasksStatementCountDoesNotGrowWithTasks() throws Exception {
+        long statementsForTwoTasks = countStatementsOfGetAllTasks();
+
+        testUtils.persistMockTasks(20);
+        long statementsForManyTasks = countStatementsOfGetAllTasks();
+
+        assertEquals(statementsForTwoTasks, statementsForManyTasks);
+    }
+
+    @Test
+    void testGetTasksStatementBudget() throws Exception {
+        testUtils.persistMockTasks(maxPageSize * 2);
+
+        queryCounter.start();
+        mockMvc.perform(get(BASE_TEST_URL + "?limit=2"))
+                .andExpect(status().isOk());
+        long smallPageStatements = queryCounter.getStatementCount();
+
+        queryCounter.start();
+        mockMvc.perform(get(BASE_TEST_URL))
+                .andExpect(status().isOk());
+
+        // A full page costs what a page of two tasks does: the version rows for the ETag, the tasks with their
+        // status, author and executor, then the labels of the whole page in one batch (the batch fetch size
+        // is not below the page size).
+        assertEquals(smallPageStatements, queryCounter.getStatementCount());
+        queryCounter.assertMaxStatements(3);
+    }
+
+    @Test
+    void testSubscribeToTaskEvents() throws Exception {
+        MvcResult result = mockMvc.perform(get(BASE_TEST_URL + "/events"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertTrue(result.getRequest().isAsyncStarted());
+
+        taskEventBroadcaster.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, 42L));
+
+        // Events are sent by the broadcaster's own threads.
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = "";
+        while (!content.contains("\"id\":42") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+
+        assertTrue(content.contains("event:" + TaskEventBroadcaster.TASK_EVENT), content);
+        assertTrue(content.contains("\"type\":\"UPDATED\",\"id\":42"), content);
+    }
+
+    @Test
+    void testTaskEventsHeartbeat() throws Exception {
+        MvcResult result = mockMvc.perform(get(BASE_TEST_URL + "/events"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        taskEventBroadcaster.sendHeartbeats();
+
+        String heartbeat = ":" + TaskEventBroadcaster.HEARTBEAT_COMMENT;
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = "";
+        while (!content.contains(heartbeat) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+
+        assertTrue(content.contains(heartbeat), content);
+    }
+
+    @Test
+    void testGetTaskSummaries() throws Exception {
+        queryCounter.start();
+
+        MockHttpServletResponse response = mockMvc
+                .perform(get(BASE_TEST_URL + "/summaries"))
+                .andReturn()
+                .getResponse();
+
+        List<TaskSummaryDto> summaries = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() { });
+        TaskSummaryDto summary = summaries.get(0);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(2, summaries.size());
+        assertEquals("Fix bugs", summary.getName());
+        assertEquals("Cancelled", summary.getTaskStatusName());
+        assertEquals("Ivan Ivanov", summary.getAuthorName());
+        assertNull(summary.getExecutorId());
+        assertEquals("review", summary.getLabels().get(0).getName());
+        assertEquals(0, queryCounter.getStatistics().getEntityLoadCount());
+        // The version rows for the ETag, the page and the labels of all its tasks.
+        queryCounter.assertMaxStatements(3);
+    }
+
     @Test
     void testGetTaskByValidId() throws Exception {
         Task expectedTask = taskRepository.findTaskByName("Fix bugs").orElseThrow();
@@ -114,12 +417,15 @@ class TaskControllerTest {
     @Test
     void testGetTaskByInvalidId() throws Exception {
         long invalidId = -1L;
+        double errorsBefore = countErrors("TaskNotFoundException");
         MockHttpServletResponse response = mockMvc
                 .perform(get(BASE_TEST_URL + "/" + invalidId))
                 .andReturn()
                 .getResponse();
 
         assertEquals(404, response.getStatus());
+        assertTrue(response.getContentAsString().contains("No task found with ID -1."));
+        assertEquals(errorsBefore + 1, countErrors("TaskNotFoundException"));
     }
 
     @Test
@@ -134,6 +440,10 @@ class TaskControllerTest {
 
         Optional<Task> testTask = taskRepository.findTaskByName(taskDto.getName());
         assertTrue(testTask.isPresent());
+
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertTrue(events.stream().anyMatch(event -> event.getAggregateId().equals(testTask.get().getId())
+                && event.getEventType().equals(TaskChangedEvent.Type.CREATED.name())));
     }
 
     @Test
@@ -152,6 +462,74 @@ class TaskControllerTest {
         assertTrue(response.getContentAsString().contains("Status field can't be empty."));
     }
 
+    @Test
+    @WithMockUser(username = "ivanov@mail.com", password = "12345")
+    void testCreateTaskWithMissingLabels() throws Exception {
+        TaskDto taskDto = testUtils.createTaskDto();
+        Long labelId = labelRepository.findLabelByName("review").orElseThrow().getId();
+        taskDto.setLabelIds(Set.of(labelId, -1L, -2L));
+
+        MockHttpServletResponse response = mockMvc.perform(post(BASE_TEST_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MAPPER.writeValueAsString(taskDto)))
+                .andReturn()
+                .getResponse();
+
+        assertEquals(404, response.getStatus());
+        assertTrue(response.getContentAsString().contains("No labels found with IDs [-2, -1]."));
+        assertTrue(taskRepository.findTaskByName(taskDto.getName()).isEmpty());
+    }
+
+    @Test
+    @WithMockUser(username = "ivanov@mail.com", password = "12345")
+    void testCreateTaskStatementCountDoesNotGrowWithLabels() throws Exception {
+        TaskDto taskDto = testUtils.createTaskDto();
+        taskDto.setLabelIds(Set.of(testUtils.persistMockLabel("Label 1").getId()));
+        // Let the pooled sequences of tasks and outbox events allocate their IDs before measuring.
+        countStatementsOfCreateTask(taskDto);
+
+        taskDto.setName("Clean cache once more");
+        long statementsForOneLabel = countStatementsOfCreateTask(taskDto);
+
+        taskDto.setName("Clean cache again");
+        taskDto.setLabelIds(Set.of(
+                testUtils.persistMockLabel("Label 2").getId(),
+                testUtils.persistMockLabel("Label 3").getId(),
+                testUtils.persistMockLabel("Label 4").getId()
+        ));
+        long statementsForManyLabels = countStatementsOfCreateTask(taskDto);
+
+        assertEquals(statementsForOneLabel, statementsForManyLabels);
+    }
+
+    @Test
+    @WithMockUser(username = "ivanov@mail.com", password = "12345")
+    void testCreateTaskWithMissingStatus() throws Exception {
+        TaskDto taskDto = testUtils.createTaskDto();
+        taskDto.setTaskStatusId(-1L);
+
+        MockHttpServletResponse response = mockMvc.perform(post(BASE_TEST_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MAPPER.writeValueAsString(taskDto)))
+                .andReturn()
+                .getResponse();
+
+        assertEquals(404, response.getStatus());
+        assertTrue(response.getContentAsString().contains("No status found with ID -1."));
+    }
+
+    @Test
+    void testCreateTaskByDeletedUser() throws Exception {
+        TaskDto taskDto = testUtils.createTaskDto();
+        UserPrincipal deletedUser = new UserPrincipal(-1L, "deleted@mail.com", "", List.of());
+
+        mockMvc.perform(post(BASE_TEST_URL)
+                        .with(user(deletedUser))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MAPPER.writeValueAsString(taskDto)))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testCreateTaskUnauthenticated() throws Exception {
         TaskDto taskDto = testUtils.createTaskDto();
@@ -166,8 +544,10 @@ class TaskControllerTest {
     @WithMockUser
     void testUpdateTask() throws Exception {
         Task task = taskRepository.findTaskByName("Fix bugs").orElseThrow();
+        entityManager.flush();
 
         TaskDto taskDto = testUtils.createTaskDto();
+        taskDto.setVersion(task.getVersion());
 
         mockMvc.perform(put(BASE_TEST_URL + "/" + task.getId())
                         .contentType(MediaType.APPLICATION_JSON)
@@ -178,6 +558,38 @@ class TaskControllerTest {
         assertEquals("Clean cache", task.getName());
     }
 
+    @Test
+    @WithMockUser
+    void testUpdateTaskWithoutVersion() throws Exception {
+        Task task = taskRepository.findTaskByName("Fix bugs").orElseThrow();
+
+        MockHttpServletResponse response = mockMvc.perform(put(BASE_TEST_URL + "/" + task.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MAPPER.writeValueAsString(testUtils.createTaskDto())))
+                .andReturn()
+                .getResponse();
+
+        assertEquals(428, response.getStatus());
+        assertEquals("Fix bugs", task.getName());
+    }
+
+    @Test
+    @WithMockUser
+    void testUpdateTaskWithOutdatedVersion() throws Exception {
+        Task task = taskRepository.findTaskByName("Fix bugs").orElseThrow();
+        entityManager.flush();
+
+        TaskDto taskDto = testUtils.createTaskDto();
+        taskDto.setVersion(task.getVersion() + 1);
+
+        mockMvc.perform(put(BASE_TEST_URL + "/" + task.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MAPPER.writeValueAsString(taskDto)))
+                .andExpect(status().isConflict());
+
+        assertEquals("Fix bugs", task.getName());
+    }
+
     @Test
     @WithMockUser(username = "ivanov@mail.com", password = "12345", roles = "USER")
     void testDeleteTaskByAuthor() throws Exception {
@@ -189,6 +601,33 @@ class TaskControllerTest {
         assertTrue(taskRepository.findTaskByName("Fix bugs").isEmpty());
     }
 
+    @Test
+    @WithMockUser(username = "ivanov@mail.com", password = "12345", roles = "USER")
+    void testGetTaskDeletions() throws Exception {
+        Task task = taskRepository.findTaskByName("Fix bugs").orElseThrow();
+        String changedSince = Instant.now().minus(Duration.ofHours(1)).toString();
+
+        mockMvc.perform(delete(BASE_TEST_URL + "/" + task.getId()))
+                .andExpect(status().isOk());
+
+        MockHttpServletResponse response = mockMvc
+                .perform(get(BASE_TEST_URL + "/deletions").param("changedSince", changedSince))
+                .andReturn()
+                .getResponse();
+        List<TaskTombstone> deletions = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() { });
+
+        assertEquals(200, response.getStatus());
+        assertEquals(List.of(task.getId()), deletions.stream().map(TaskTombstone::getTaskId).toList());
+
+        MockHttpServletResponse emptyResponse = mockMvc
+                .perform(get(BASE_TEST_URL + "/deletions")
+                        .param("changedSince", Instant.now().plus(Duration.ofHours(1)).toString()))
+                .andReturn()
+                .getResponse();
+
+        assertEquals("[]", emptyResponse.getContentAsString());
+    }
+
     @Test
     @WithMockUser
     void testDeleteTaskAuthenticatedNotAuthor() throws Exception {
@@ -205,4 +644,175 @@ class TaskControllerTest {
         mockMvc.perform(delete(BASE_TEST_URL + "/" + task.getId()))
                 .andExpect(status().is(403));
     }
+
+    @Test
+    @WithMockUser(username = "ivanov@mail.com", password = "12345")
+    void testProcessBatch() throws Exception {
+        Task ownTask = taskRepository.findTaskByName("Fix bugs").orElseThrow();
+        Task otherTask = taskRepository.findTaskByName("Clean up text").orElseThrow();
+        entityManager.flush();
+        TaskDto validDto = testUtils.createTaskDto();
+        validDto.setVersion(otherTask.getVersion());
+        TaskDto invalidDto = new TaskDto("Write docs", null, -1L, null, null, null);
+
+        TaskBatchDto batch = new TaskBatchDto(
+                List.of(validDto, invalidDto),
+                Map.of(otherTask.getId(), validDto),
+                List.of(ownTask.getId(), otherTask.getId(), -1L)
+        );
+
+        MockHttpServletResponse response = mockMvc.perform(post(BASE_TEST_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MAPPER.writeValueAsString(batch)))
+                .andReturn()
+                .getResponse();
+
+        assertEquals(200, response.getStatus());
+        TaskBatchResultDto result = MAPPER.readValue(response.getContentAsString(), TaskBatchResultDto.class);
+
+        assertEquals(HttpStatus.CREATED, result.getCreated().get(0).getStatus());
+        assertTrue(taskRepository.findById(result.getCreated().get(0).getId()).isPresent());
+        assertEquals(HttpStatus.NOT_FOUND, result.getCreated().get(1).getStatus());
+        assertTrue(taskRepository.findTaskByName("Write docs").isEmpty());
+
+        assertEquals(HttpStatus.OK, result.getUpdated().get(0).getStatus());
+        assertEquals("Due by 04.05", otherTask.getDescription());
+
+        assertEquals(HttpStatus.OK, result.getDeleted().get(0).getStatus());
+        assertEquals(HttpStatus.FORBIDDEN, result.getDeleted().get(1).getStatus());
+        assertEquals(HttpStatus.NOT_FOUND, result.getDeleted().get(2).getStatus());
+        assertTrue(taskRepository.findTaskByName("Fix bugs").isEmpty());
+    }
+
+    @Test
+    @WithMockUser(username = "ivanov@mail.com", password = "12345")
+    void testProcessBatchWithRepeatedIds() throws Exception {
+        Task task = taskRepository.findTaskByName("Fix bugs").orElseThrow();
+        long outboxEventsBefore = outboxEventRepository.count();
+
+        TaskBatchDto batch = new TaskBatchDto(
+                List.of(),
+                Map.of(task.getId(), testUtils.createTaskDto()),
+                List.of(task.getId(), task.getId())
+        );
+
+        MockHttpServletResponse response = mockMvc.perform(post(BASE_TEST_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MAPPER.writeValueAsString(batch)))
+                .andReturn()
+                .getResponse();
+
+        assertEquals(200, response.getStatus());
+        TaskBatchResultDto result = MAPPER.readValue(response.getContentAsString(), TaskBatchResultDto.class);
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, result.getUpdated().get(0).getStatus());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, result.getDeleted().get(0).getStatus());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, result.getDeleted().get(1).getStatus());
+        assertEquals("Fix bugs", taskRepository.findById(task.getId()).orElseThrow().getName());
+        assertEquals(outboxEventsBefore, outboxEventRepository.count());
+    }
+
+    @Test
+    @WithMockUser(username = "ivanov@mail.com", password = "12345")
+    void testProcessBatchUpdateWithoutVersion() throws Exception {
+        Task task = taskRepository.findTaskByName("Fix bugs").orElseThrow();
+        TaskBatchDto batch = new TaskBatchDto(List.of(), Map.of(task.getId(), testUtils.createTaskDto()), List.of());
+
+        MockHttpServletResponse response = mockMvc.perform(post(BASE_TEST_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MAPPER.writeValueAsString(batch)))
+                .andReturn()
+                .getResponse();
+
+        assertEquals(200, response.getStatus());
+        TaskBatchResultDto result = MAPPER.readValue(response.getContentAsString(), TaskBatchResultDto.class);
+        assertEquals(HttpStatus.PRECONDITION_REQUIRED, result.getUpdated().get(0).getStatus());
+        assertEquals("Fix bugs", task.getName());
+    }
+
+    @Test
+    @WithMockUser(username = "ivanov@mail.com", password = "12345")
+    void testProcessBatchWithNullList() throws Exception {
+        mockMvc.perform(post(BASE_TEST_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"create\": null, \"update\": {}, \"delete\": []}"))
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    @WithMockUser(username = "ivanov@mail.com", password = "12345")
+    void testProcessBatchWithNullLabelId() throws Exception {
+        Long taskStatusId = taskStatusRepository.findTaskStatusByName("Cancelled").orElseThrow().getId();
+        String task = "{\"name\": \"Write docs\", \"taskStatusId\": " + taskStatusId + ", \"labelIds\": [null]}";
+
+        MockHttpServletResponse response = mockMvc.perform(post(BASE_TEST_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"create\": [" + task + "], \"update\": {}, \"delete\": []}"))
+                .andReturn()
+                .getResponse();
+
+        assertEquals(422, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Label IDs can't contain empty values."));
+    }
+
+    @Test
+    @WithMockUser(username = "ivanov@mail.com", password = "12345")
+    void testFailedCreateTaskIsCounted() throws Exception {
+        TaskDto taskDto = testUtils.createTaskDto();
+        taskDto.setTaskStatusId(-1L);
+        double errorsBefore = countErrors("TaskStatusNotFoundException");
+        long failedCallsBefore = countServiceCalls("createTask", "TaskStatusNotFoundException");
+
+        mockMvc.perform(post(BASE_TEST_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MAPPER.writeValueAsString(taskDto)))
+                .andExpect(status().isNotFound());
+
+        assertEquals(errorsBefore + 1, countErrors("TaskStatusNotFoundException"));
+        assertEquals(failedCallsBefore + 1, countServiceCalls("createTask", "TaskStatusNotFoundException"));
+    }
+
+    @Test
+    void testProcessBatchUnauthenticated() throws Exception {
+        TaskBatchDto batch = new TaskBatchDto(List.of(testUtils.createTaskDto()), Map.of(), List.of());
+
+        mockMvc.perform(post(BASE_TEST_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MAPPER.writeValueAsString(batch)))
+                .andExpect(status().is(403));
+    }
+
+    private long countStatementsOfGetAllTasks() throws Exception {
+        queryCounter.start();
+
+        mockMvc.perform(get(BASE_TEST_URL))
+                .andExpect(status().isOk());
+
+        return queryCounter.getStatementCount();
+    }
+
+    private long countStatementsOfCreateTask(TaskDto taskDto) throws Exception {
+        queryCounter.start();
+
+        mockMvc.perform(post(BASE_TEST_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MAPPER.writeValueAsString(taskDto)))
+                .andExpect(status().isCreated());
+
+        return queryCounter.getStatementCount();
+    }
+
+    private double countErrors(String exception) {
+        Counter counter = meterRegistry.find(ErrorCountingExceptionResolver.ERROR_COUNTER)
+                .tag("exception", exception)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private long countServiceCalls(String method, String exception) {
+        Timer timer = meterRegistry.find(MetricsConfiguration.SERVICE_TIMER)
+                .tags("method", method, "exception", exception)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
 }
@@ -5,9 +5,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.database.rider.core.api.configuration.DBUnit;
 import com.github.database.rider.core.api.dataset.DataSet;
 import com.github.database.rider.junit5.api.DBRider;
+import hexlet.code.QueryCounter;
+import hexlet.code.TestUtils;
 import hexlet.code.dto.TaskStatusDto;
+import hexlet.code.model.Task;
 import hexlet.code.model.TaskStatus;
 import hexlet.code.repository.TaskStatusRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -43,6 +48,18 @@ class TaskStatusControllerTest {
     @Autowired
     private TaskStatusRepository taskStatusRepository;
 
+    @Autowired
+    private TestUtils testUtils;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private static final ObjectMapper MAPPER = new ObjectMapper();
     private static final String BASE_TEST_URL = "/api/statuses";
 
@@ -153,6 +170,20 @@ class TaskStatusControllerTest {
         assertTrue(taskStatusRepository.findTaskStatusByName("Completed").isEmpty());
     }
 
+    @Test
+    @WithMockUser
+    void testDeleteTaskStatusStatementBudget() throws Exception {
+        TaskStatus taskStatus = taskStatusRepository.findTaskStatusByName("Completed").orElseThrow();
+        queryCounter.start();
+
+        mockMvc.perform(delete(BASE_TEST_URL + "/" + taskStatus.getId()))
+                .andExpect(status().isOk());
+        entityManager.flush();
+
+        // The status, the check for its tasks and the delete itself.
+        queryCounter.assertMaxStatements(3);
+    }
+
     @Test
     void testDeleteTaskStatusUnauthenticated() throws Exception {
         TaskStatus taskStatus = taskStatusRepository.findTaskStatusByName("Completed").orElseThrow();
@@ -168,4 +199,58 @@ class TaskStatusControllerTest {
         mockMvc.perform(delete(BASE_TEST_URL + "/" + taskStatus.getId()))
                 .andExpect(status().is(403));
     }
+
+    @Test
+    @WithMockUser
+    void testDeleteTaskStatusWithTasksDoesNotLoadThem() throws Exception {
+        testUtils.persistMockTasks(1);
+        TaskStatus taskStatus = taskStatusRepository.findTaskStatusByName("Status 0").orElseThrow();
+        queryCounter.start();
+
+        mockMvc.perform(delete(BASE_TEST_URL + "/" + taskStatus.getId()))
+                .andExpect(status().is(422));
+
+        assertEquals(0, queryCounter.getStatistics().getCollectionLoadCount());
+        // The status itself is looked up, its tasks are only checked for existence.
+        assertEquals(0, queryCounter.getStatistics().getEntityStatistics(Task.class.getName()).getLoadCount());
+        assertTrue(taskStatusRepository.findTaskStatusByName("Status 0").isPresent());
+    }
+
+    @Test
+    void testGetTaskStatusesStatementBudget() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            testUtils.persistMockTaskStatus("Status " + i);
+        }
+        queryCounter.start();
+
+        mockMvc.perform(get(BASE_TEST_URL))
+                .andExpect(status().isOk());
+
+        // The version rows for the ETag, then the statuses.
+        queryCounter.assertMaxStatements(2);
+    }
+
+    @Test
+    void testGetTaskStatusFromSecondLevelCache() throws Exception {
+        TaskStatus taskStatus = taskStatusRepository.findTaskStatusByName("In progress").orElseThrow();
+        mockMvc.perform(get(BASE_TEST_URL + "/" + taskStatus.getId()))
+                .andExpect(status().isOk());
+        queryCounter.start();
+        double regionHits = getStatusRegionHits();
+
+        mockMvc.perform(get(BASE_TEST_URL + "/" + taskStatus.getId()))
+                .andExpect(status().isOk());
+
+        // Only the version rows for the ETag are read, the status itself comes from the cache.
+        assertEquals(1, queryCounter.getStatementCount());
+        assertEquals(1, queryCounter.getStatistics().getSecondLevelCacheHitCount());
+        assertEquals(regionHits + 1, getStatusRegionHits());
+    }
+
+    private double getStatusRegionHits() {
+        return meterRegistry.get("cache.gets")
+                .tags("cache", TaskStatus.class.getName(), "result", "hit")
+                .functionCounter()
+                .count();
+    }
 }
@@ -5,18 +5,27 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.database.rider.core.api.configuration.DBUnit;
 import com.github.database.rider.core.api.dataset.DataSet;
 import com.github.database.rider.junit5.api.DBRider;
+import hexlet.code.QueryCounter;
 import hexlet.code.TestUtils;
+import hexlet.code.config.CacheConfiguration;
 import hexlet.code.dto.UserDto;
 import hexlet.code.model.User;
 import hexlet.code.repository.UserRepository;
 import hexlet.code.service.JwtService;
+import hexlet.code.service.user.ActiveUsersCache;
 import hexlet.code.service.user.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,11 +36,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -57,9 +68,30 @@ class UserControllerTest {
     @Autowired
     private TestUtils testUtils;
 
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ActiveUsersCache activeUsersCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private static final ObjectMapper MAPPER = new ObjectMapper();
     private static final String BASE_TEST_URL = "/api/users";
 
+    @BeforeEach
+    public void setUp() {
+        // Users are re-inserted with new IDs for every test, so cached users of previous tests are stale.
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
     @Test
     void testGetAllUsers() throws Exception {
         System.out.println("AAA" + System.getenv("JWT_SECRET"));
@@ -77,6 +109,20 @@ class UserControllerTest {
         assertEquals("Mustermann", users.get(2).getLastName());
     }
 
+    @Test
+    void testGetAllUsersStatementBudget() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            testUtils.persistMockUser("user" + i + "@test.com", "First", "Last");
+        }
+        queryCounter.start();
+
+        mockMvc.perform(get(BASE_TEST_URL))
+                .andExpect(status().isOk());
+
+        // The version rows for the ETag, then the users.
+        queryCounter.assertMaxStatements(2);
+    }
+
     @Test
     void testGetUserByValidId() throws Exception {
         User user = userRepository.findUserByEmail("doe@test.com").orElseThrow();
@@ -162,6 +208,95 @@ class UserControllerTest {
         assertNotEquals("oW&uTyN<eC", user.getPassword());
     }
 
+    @Test
+    void testAuthenticationFromTokenClaimsDoesNotLoadUser() throws Exception {
+        String jwt = jwtService.generateToken(userDetailsService.loadUserByUsername("doe@test.com"));
+        queryCounter.start();
+
+        mockMvc.perform(get("/api/labels")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk());
+
+        assertEquals(0, queryCounter.getStatistics().getEntityStatistics(User.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void testTokenOfDeletedUserIsRejected() throws Exception {
+        User user = userRepository.findUserByEmail("doe@test.com").orElseThrow();
+        String jwt = jwtService.generateToken(userDetailsService.loadUserByUsername("doe@test.com"));
+        userRepository.delete(user);
+        entityManager.flush();
+        activeUsersCache.evict(user.getId());
+
+        try {
+            mockMvc.perform(get("/api/labels")
+                            .header("Authorization", "Bearer " + jwt))
+                    .andExpect(status().isUnauthorized());
+        } finally {
+            // The user is inserted again with the same ID by the next test.
+            activeUsersCache.evict(user.getId());
+        }
+    }
+
+    @Test
+    void testUpdateUserWithTamperedToken() throws Exception {
+        User user = userRepository.findUserByEmail("doe@test.com").orElseThrow();
+        String jwt = jwtService.generateToken(userDetailsService.loadUserByUsername("doe@test.com"));
+
+        UserDto userDto = new UserDto(
+                "Olga", "Ivanova", "ivanova@mail.com", "or&uuTyN<eC"
+        );
+
+        mockMvc.perform(put(BASE_TEST_URL + "/" + user.getId())
+                        .header("Authorization", "Bearer " + jwt.substring(0, jwt.length() - 2))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MAPPER.writeValueAsString(userDto)))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\""));
+
+        entityManager.clear();
+        assertEquals("Jane", userRepository.findById(user.getId()).orElseThrow().getFirstName());
+    }
+
+    @Test
+    void testPublicRouteWithTamperedToken() throws Exception {
+        String jwt = jwtService.generateToken(userDetailsService.loadUserByUsername("doe@test.com"));
+
+        mockMvc.perform(get(BASE_TEST_URL)
+                        .header("Authorization", "Bearer " + jwt.substring(0, jwt.length() - 2)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testEmptyTokenIsRejected() throws Exception {
+        mockMvc.perform(get(BASE_TEST_URL).header("Authorization", "Bearer "))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\""));
+    }
+
+    @Test
+    void testUserDetailsCacheIsEvictedOnUpdate() throws Exception {
+        double hitsBefore = getUserCacheHits();
+        String jwt = jwtService.generateToken(userDetailsService.loadUserByUsername("doe@test.com"));
+        userDetailsService.loadUserByUsername("doe@test.com");
+
+        assertEquals(1.0, getUserCacheHits() - hitsBefore);
+
+        User user = userRepository.findUserByEmail("doe@test.com").orElseThrow();
+        UserDto userDto = new UserDto(
+                "Olga", "Ivanova", "ivanova@mail.com", "or&uuTyN<eC"
+        );
+
+        mockMvc.perform(put(BASE_TEST_URL + "/" + user.getId())
+                        .header("Authorization", "Bearer " + jwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MAPPER.writeValueAsString(userDto)))
+                .andExpect(status().isOk());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("doe@test.com"));
+        assertEquals("ivanova@mail.com", userDetailsService.loadUserByUsername("ivanova@mail.com").getUsername());
+    }
+
     @Test
     void testDeleteUser() throws Exception {
         User user = userRepository.findUserByEmail("mustermann@test.com").orElseThrow();
@@ -187,4 +322,11 @@ class UserControllerTest {
         assertEquals(422, response.getStatus());
         assertTrue(response.getContentAsString().contains("Cannot delete user"));
     }
+
+    private double getUserCacheHits() {
+        return meterRegistry.get("cache.gets")
+                .tags("cache", CacheConfiguration.USER_DETAILS_CACHE, "result", "hit")
+                .functionCounter()
+                .count();
+    }
 }
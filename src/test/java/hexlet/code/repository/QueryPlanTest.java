@@ -0,0 +1,118 @@
+package hexlet.code.repository;
+
+import com.querydsl.core.types.Predicate;
+import hexlet.code.model.QTask;
+import hexlet.code.service.task.TaskServiceImpl;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Checks that the queries behind the task filters are served by indexes and not by table scans.
+// The schema is built by the Liquibase changelog alone, as in production, and the plans are taken
+// for the SQL that Hibernate actually generates.
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:query-plan",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "hexlet.code.repository.QueryPlanTest$SqlRecorder"
+})
+@Transactional
+class QueryPlanTest {
+
+    private static final int PAGE_QUERY_LIMIT = 101;
+
+    @Autowired
+    private TaskServiceImpl taskService;
+
+    @Autowired
+    private TaskStatusRepository taskStatusRepository;
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testTaskFilterByStatusUsesIndex() {
+        Predicate predicate = QTask.task.taskStatus.id.eq(1L);
+        String plan = explain(() -> taskService.getTasks(predicate, null, null), 1L, PAGE_QUERY_LIMIT);
+        assertTrue(plan.contains("IDX_TASKS_TASK_STATUS_ID"), plan);
+    }
+
+    @Test
+    void testTaskFilterByExecutorUsesIndex() {
+        Predicate predicate = QTask.task.executor.id.eq(1L);
+        String plan = explain(() -> taskService.getTasks(predicate, null, null), 1L, PAGE_QUERY_LIMIT);
+        assertTrue(plan.contains("IDX_TASKS_EXECUTOR_ID"), plan);
+    }
+
+    @Test
+    void testTaskFilterByLabelUsesIndex() {
+        Predicate predicate = QTask.task.labels.any().id.eq(1L);
+        String plan = explain(() -> taskService.getTasks(predicate, null, null), 1L, PAGE_QUERY_LIMIT);
+        assertTrue(plan.contains("IDX_TASK_LABEL_LABEL_ID_TASK_ID"), plan);
+    }
+
+    @Test
+    void testTasksChangedSinceUseIndex() {
+        Instant changedSince = Instant.parse("2023-07-19T00:00:00Z");
+        String plan = explain(() -> taskService.getTasksChangedSince(null, changedSince, null, null),
+                Timestamp.from(changedSince), PAGE_QUERY_LIMIT);
+        assertTrue(plan.contains("IDX_TASKS_UPDATED_AT_ID"), plan);
+    }
+
+    @Test
+    void testTasksDeletedSinceUseIndex() {
+        Instant deletedSince = Instant.parse("2023-07-19T00:00:00Z");
+        String plan = explain(() -> taskService.getTasksDeletedSince(deletedSince, null, null),
+                Timestamp.from(deletedSince), PAGE_QUERY_LIMIT);
+        assertTrue(plan.contains("IDX_TASK_TOMBSTONES_DELETED_AT_ID"), plan);
+    }
+
+    @Test
+    void testStatusLookupByNameUsesIndex() {
+        String plan = explain(() -> taskStatusRepository.findTaskStatusByName("New"), "New");
+        assertTrue(plan.contains("IDX_STATUSES_NAME"), plan);
+    }
+
+    @Test
+    void testLabelLookupByNameUsesIndex() {
+        String plan = explain(() -> labelRepository.findLabelByName("bug"), "bug");
+        assertTrue(plan.contains("IDX_LABELS_NAME"), plan);
+    }
+
+    // Runs the query, then explains the single statement it sent with the given bind parameters.
+    private String explain(Runnable query, Object... parameters) {
+        SqlRecorder.STATEMENTS.clear();
+        query.run();
+        List<String> statements = List.copyOf(SqlRecorder.STATEMENTS);
+        assertEquals(1, statements.size(), statements::toString);
+
+        return jdbcTemplate.queryForObject("EXPLAIN " + statements.get(0), String.class, parameters)
+                .toUpperCase();
+    }
+
+    // Registered as Hibernate's statement inspector, sees every SQL statement before it is prepared.
+    public static class SqlRecorder implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package hexlet.code.service.outbox;
+
+import hexlet.code.model.OutboxEvent;
+import hexlet.code.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the polling flow against a sink that fails until it is told to recover. The context has
+// a database of its own, so that the poller doesn't take the events of other tests.
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:outbox-relay",
+    "outbox.relay.enabled=true",
+    "outbox.relay.poll-interval=50ms",
+    "outbox.sink=flaky"
+})
+@DirtiesContext
+class OutboxRelayFlowTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private FlakySink outboxSink;
+
+    @Test
+    void testFailedDeliveryIsRetried() throws Exception {
+        outboxSink.failing.set(true);
+        long relayedEvents = outboxRelay.getRelayedEvents();
+
+        OutboxEvent event = outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(TaskOutboxWriter.TASK_AGGREGATE)
+                .aggregateId(1L)
+                .eventType("UPDATED")
+                .payload("{\"type\":\"UPDATED\",\"id\":1}")
+                .build());
+
+        // A second attempt means that the first one was rolled back and the event left in the outbox.
+        await(() -> outboxSink.attempts.get() >= 2);
+        assertEquals(1, outboxEventRepository.count());
+        assertTrue(outboxSink.events.isEmpty());
+        assertEquals(relayedEvents, outboxRelay.getRelayedEvents());
+
+        outboxSink.failing.set(false);
+
+        await(() -> outboxEventRepository.count() == 0);
+        assertEquals(List.of(event.getId()), outboxSink.events.stream().map(OutboxEvent::getId).toList());
+        assertEquals(relayedEvents + 1, outboxRelay.getRelayedEvents());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the outbox relay");
+            Thread.sleep(10);
+        }
+    }
+
+    static class FlakySink implements OutboxSink {
+
+        private final AtomicBoolean failing = new AtomicBoolean();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(List<OutboxEvent> batch) {
+            attempts.incrementAndGet();
+            if (failing.get()) {
+                throw new IllegalStateException("Sink is not available");
+            }
+            events.addAll(batch);
+        }
+    }
+
+    @TestConfiguration
+    static class FlakySinkConfiguration {
+
+        @Bean
+        FlakySink outboxSink() {
+            return new FlakySink();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package hexlet.code.service.outbox;
+
+import hexlet.code.model.OutboxEvent;
+import hexlet.code.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The polling flow is disabled in tests, the relay is driven by hand instead.
+// OutboxRelayFlowTest runs the flow itself.
+@SpringBootTest
+@Transactional
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private InMemoryOutboxSink outboxSink;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAllInBatch();
+        outboxSink.clear();
+    }
+
+    @Test
+    void testRelayDeliversEventsInOrderAndRemovesThem() throws Exception {
+        OutboxEvent first = outboxEventRepository.save(createEvent(1L));
+        OutboxEvent second = outboxEventRepository.save(createEvent(2L));
+        outboxEventRepository.flush();
+        long relayedEvents = outboxRelay.getRelayedEvents();
+
+        List<OutboxEvent> batch = outboxRelay.nextBatch();
+        outboxRelay.deliver(batch);
+
+        List<OutboxEvent> delivered = outboxSink.getEvents();
+        assertEquals(List.of(first.getId(), second.getId()), delivered.stream().map(OutboxEvent::getId).toList());
+        assertTrue(outboxEventRepository.findAll().isEmpty());
+        assertEquals(relayedEvents + 2, outboxRelay.getRelayedEvents());
+        assertNull(outboxRelay.nextBatch());
+    }
+
+    private OutboxEvent createEvent(Long taskId) {
+        return OutboxEvent.builder()
+                .aggregateType(TaskOutboxWriter.TASK_AGGREGATE)
+                .aggregateId(taskId)
+                .eventType("UPDATED")
+                .payload("{\"type\":\"UPDATED\",\"id\":" + taskId + "}")
+                .build();
+    }
+}
@@ -0,0 +1,161 @@
+package hexlet.code.service.slowlog;
+
+import hexlet.code.QueryCounter;
+import hexlet.code.TestUtils;
+import hexlet.code.model.Task;
+import hexlet.code.repository.TaskRepository;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The thresholds are lowered through the actuator endpoint, as an operator would, so that every
+// statement and request of the test is slow.
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@ExtendWith(OutputCaptureExtension.class)
+class SlowLogTest {
+
+    private static final Duration WRITE_TIMEOUT = Duration.ofSeconds(5);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SlowLogEndpoint slowLogEndpoint;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TestUtils testUtils;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    private Map<String, Object> initialSettings;
+
+    @BeforeEach
+    void setUp() {
+        initialSettings = slowLogEndpoint.slowLogs();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String name : new String[] {"query", "request"}) {
+            SlowLog.Settings settings = (SlowLog.Settings) initialSettings.get(name);
+            slowLogEndpoint.configure(name, settings.enabled(), settings.thresholdMillis(), settings.sampleRate());
+        }
+    }
+
+    @Test
+    void testSlowQueryAndRequestAreLogged(CapturedOutput output) throws Exception {
+        testUtils.persistMockTask();
+        Task task = taskRepository.findAll().get(0);
+        slowLogEndpoint.configure("query", true, 0L, 1.0);
+        slowLogEndpoint.configure("request", true, 0L, 1.0);
+        queryCounter.start();
+
+        mockMvc.perform(get("/api/tasks/{id}", task.getId()))
+                .andExpect(status().isOk());
+
+        awaitOutput(output, "Slow request");
+        assertTrue(output.getOut().contains("TaskController.getTaskById GET /api/tasks/" + task.getId() + " -> 200"));
+        awaitOutput(output, "Slow query");
+        assertTrue(output.getOut().contains("[" + task.getId() + "]"));
+    }
+
+    @Test
+    void testSettingsAreChangedAtRuntime() {
+        SlowLog.Settings settings = slowLogEndpoint.configure("query", false, 0L, null);
+
+        assertFalse(settings.enabled());
+        assertEquals(1.0, settings.sampleRate());
+        assertEquals(settings, slowLogEndpoint.slowLog("query"));
+    }
+
+    @Test
+    void testInvalidSettingsAreRejected() {
+        assertThrows(InvalidEndpointRequestException.class,
+                () -> slowLogEndpoint.configure("query", null, null, 2.0));
+        assertThrows(InvalidEndpointRequestException.class,
+                () -> slowLogEndpoint.configure("query", null, -1L, null));
+        assertThrows(InvalidEndpointRequestException.class,
+                () -> slowLogEndpoint.configure("unknown", true, null, null));
+    }
+
+    @Test
+    void testLongParametersAreTruncated(CapturedOutput output) throws Exception {
+        SlowLog slowLog = new SlowLog("query", Runnable::run, new SlowLog.Settings(true, 0, 1.0));
+        SlowQueryListener listener = new SlowQueryListener(slowLog, true, 10);
+
+        listener.afterQuery(createExecutionInfo(), List.of(createUpdateQuery()));
+
+        assertTrue(output.getOut().contains("Slow query (250 ms): update tasks set description = ? where id = ?"
+                + " ['A descript...(38 chars)', 42]"));
+    }
+
+    @Test
+    void testParametersAreNotCapturedByDefault(CapturedOutput output) throws Exception {
+        SlowLog slowLog = new SlowLog("query", Runnable::run, new SlowLog.Settings(true, 0, 1.0));
+        SlowQueryListener listener = new SlowQueryListener(slowLog, false, 10);
+
+        listener.afterQuery(createExecutionInfo(), List.of(createUpdateQuery()));
+
+        assertTrue(output.getOut().contains("Slow query (250 ms): update tasks set description = ? where id = ?"));
+        assertFalse(output.getOut().contains("A descript"));
+        assertFalse(output.getOut().contains("42]"));
+    }
+
+    private static QueryInfo createUpdateQuery() throws NoSuchMethodException {
+        QueryInfo queryInfo = new QueryInfo("update tasks set description = ? where id = ?");
+        queryInfo.getParametersList().add(List.of(
+                new ParameterSetOperation(
+                        PreparedStatement.class.getMethod("setString", int.class, String.class),
+                        new Object[] {1, "A description far too long for the log"}),
+                new ParameterSetOperation(
+                        PreparedStatement.class.getMethod("setLong", int.class, long.class),
+                        new Object[] {2, 42L})
+        ));
+        return queryInfo;
+    }
+
+    private static ExecutionInfo createExecutionInfo() {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(250);
+        executionInfo.setSuccess(true);
+        return executionInfo;
+    }
+
+    private static void awaitOutput(CapturedOutput output, String expected) throws InterruptedException {
+        long deadline = System.nanoTime() + WRITE_TIMEOUT.toNanos();
+        while (!output.getOut().contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(output.getOut().contains(expected), () -> "Expected \"" + expected + "\" in the log");
+    }
+}
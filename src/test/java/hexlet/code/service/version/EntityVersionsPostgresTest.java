@@ -0,0 +1,65 @@
+package hexlet.code.service.version;
+
+import hexlet.code.model.TaskStatus;
+import hexlet.code.repository.TaskStatusRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The triggers exist on PostgreSQL only, so this is where a second writer of the counters would show.
+// Not transactional, the triggers and the Hibernate session both act on the commit.
+@SpringBootTest
+@ActiveProfiles("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+class EntityVersionsPostgresTest {
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private TaskStatusRepository taskStatusRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testWriteIncrementsVersionOnce() {
+        long version = getStatusVersion();
+
+        TaskStatus taskStatus = taskStatusRepository.save(new TaskStatus("Versioned"));
+        assertEquals(version + 1, getStatusVersion());
+
+        taskStatusRepository.delete(taskStatus);
+        assertEquals(version + 2, getStatusVersion());
+    }
+
+    @Test
+    void testBatchWriteIncrementsVersionOnce() {
+        long version = getStatusVersion();
+
+        List<TaskStatus> taskStatuses = taskStatusRepository.saveAll(IntStream.range(0, 100)
+                .mapToObj(i -> new TaskStatus("Batched " + i))
+                .toList());
+        assertEquals(version + 1, getStatusVersion());
+
+        taskStatusRepository.deleteAll(taskStatuses);
+        assertEquals(version + 2, getStatusVersion());
+    }
+
+    private long getStatusVersion() {
+        return jdbcTemplate.queryForObject(
+                "SELECT version FROM entity_versions WHERE entity_type = ?", Long.class, "TaskStatus");
+    }
+}
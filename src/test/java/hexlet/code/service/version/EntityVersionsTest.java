@@ -0,0 +1,57 @@
+package hexlet.code.service.version;
+
+import hexlet.code.model.TaskStatus;
+import hexlet.code.repository.TaskStatusRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Not transactional: the versions are moved by the commit, so the write has to be committed for real.
+@SpringBootTest
+@AutoConfigureMockMvc
+class EntityVersionsTest {
+
+    private static final String STATUSES_URL = "/api/statuses";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskStatusRepository taskStatusRepository;
+
+    @Test
+    void testCommittedWriteChangesETag() throws Exception {
+        String eTag = getStatuses(null).getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        assertEquals(304, getStatuses(eTag).getStatus());
+
+        TaskStatus taskStatus = taskStatusRepository.save(new TaskStatus("Versioned"));
+        try {
+            MockHttpServletResponse response = getStatuses(eTag);
+            String newETag = response.getHeader(HttpHeaders.ETAG);
+
+            assertEquals(200, response.getStatus());
+            assertNotEquals(eTag, newETag);
+            assertEquals(304, getStatuses(newETag).getStatus());
+        } finally {
+            taskStatusRepository.delete(taskStatus);
+        }
+    }
+
+    private MockHttpServletResponse getStatuses(String eTag) throws Exception {
+        return mockMvc.perform(eTag == null
+                        ? get(STATUSES_URL)
+                        : get(STATUSES_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andReturn()
+                .getResponse();
+    }
+}